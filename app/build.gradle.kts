@@ -1,3 +1,7 @@
+import groovy.json.JsonSlurper
+import javax.xml.parsers.DocumentBuilderFactory
+import org.w3c.dom.Element
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -20,6 +24,11 @@ android {
         viewBinding = true
     }
 
+    androidResources {
+        // the quote corpus is memory-mapped straight from the APK
+        noCompress += "bin"
+    }
+
     buildTypes {
         release {
             isMinifyEnabled = false
@@ -33,10 +42,16 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+        }
+    }
 }
 
 dependencies {
 
+    implementation(project(":focus"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -46,6 +61,108 @@ dependencies {
     implementation(libs.lifecycle.process)
     implementation(libs.databinding.runtime)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-}
\ No newline at end of file
+}
+
+/**
+ * Generates ResourceTable, a static map from the resource names in songs.json and the
+ * flower_img array to their R.drawable and R.raw constants, so the app never looks resources
+ * up by name at runtime. Fails the build if any name has no matching resource file.
+ */
+abstract class GenerateResourceTable : DefaultTask() {
+    @get:InputFile
+    abstract val catalog: RegularFileProperty
+
+    @get:InputDirectory
+    abstract val resDir: DirectoryProperty
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        val res = resDir.get().asFile
+        @Suppress("UNCHECKED_CAST")
+        val songs = JsonSlurper().parse(catalog.get().asFile) as List<Map<String, Any?>>
+        val drawables = sortedSetOf<String>()
+        val raws = sortedSetOf<String>()
+        for (song in songs) {
+            drawables += song["image"] as String
+            raws += song["song"] as String
+        }
+        val flowers = readArray(File(res, "values/strings.xml"), "flower_img")
+        drawables += flowers
+
+        val missing = drawables.filterNot { exists(res, "drawable", it) }.map { "R.drawable.$it" } +
+                raws.filterNot { exists(res, "raw", it) }.map { "R.raw.$it" }
+        if (missing.isNotEmpty()) {
+            throw GradleException("Resources named in songs.json or flower_img don't exist: " +
+                    missing.joinToString())
+        }
+
+        val source = StringBuilder()
+        source.append("package com.finalproject;\n\n")
+        source.append("/**\n * Generated by the generateResourceTable task from songs.json and ")
+        source.append("the flower_img array.\n */\n")
+        source.append("public final class ResourceTable {\n")
+        source.append("    /** R.array.flower_img, as drawable IDs. */\n")
+        source.append("    public static final int[] FLOWER_IMG = {")
+        source.append(flowers.joinToString(", ") { "R.drawable.$it" })
+        source.append("};\n\n")
+        source.append("    private ResourceTable() {\n    }\n")
+        appendLookup(source, "drawable", drawables)
+        appendLookup(source, "raw", raws)
+        source.append("}\n")
+
+        val file = outputDir.file("com/finalproject/ResourceTable.java").get().asFile
+        file.parentFile.mkdirs()
+        file.writeText(source.toString())
+    }
+
+    private fun appendLookup(source: StringBuilder, type: String, names: Set<String>) {
+        source.append("\n    /**\n     * @param name name of an R.$type resource listed in the ")
+        source.append("catalog\n     * @return its ID\n     */\n")
+        source.append("    public static int $type(String name) {\n")
+        source.append("        switch (name) {\n")
+        for (name in names) {
+            source.append("            case \"$name\": return R.$type.$name;\n")
+        }
+        source.append("            default: throw new IllegalArgumentException(")
+        source.append("\"not in the catalog: \" + name);\n")
+        source.append("        }\n    }\n")
+    }
+
+    private fun readArray(strings: File, name: String): List<String> {
+        val arrays = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(strings)
+            .getElementsByTagName("array")
+        for (i in 0 until arrays.length) {
+            val array = arrays.item(i) as Element
+            if (array.getAttribute("name") == name) {
+                val items = array.getElementsByTagName("item")
+                return (0 until items.length).map { items.item(it).textContent.trim() }
+            }
+        }
+        throw GradleException("No array named $name in $strings")
+    }
+
+    private fun exists(res: File, type: String, name: String): Boolean =
+        res.listFiles().orEmpty()
+            .filter { it.isDirectory && (it.name == type || it.name.startsWith("$type-")) }
+            .any { dir -> dir.listFiles().orEmpty().any { it.name.substringBefore('.') == name } }
+}
+
+val generateResourceTable = tasks.register<GenerateResourceTable>("generateResourceTable") {
+    catalog.set(file("src/main/assets/songs.json"))
+    resDir.set(file("src/main/res"))
+    outputDir.set(layout.buildDirectory.dir("generated/source/resourceTable"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.java?.addGeneratedSourceDirectory(
+            generateResourceTable, GenerateResourceTable::outputDir)
+    }
+}
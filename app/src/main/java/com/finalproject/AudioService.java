@@ -1,12 +1,10 @@
 package com.finalproject;
 
 import android.app.Notification;
-import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.Service;
 import android.content.Intent;
 import android.media.MediaPlayer;
-import android.os.Build;
 import android.os.IBinder;
 
 import androidx.core.app.NotificationCompat;
@@ -17,7 +15,7 @@ import androidx.core.content.ContextCompat;
  * This Audio Service class helps to facilitate music playback.
  */
 public class AudioService extends Service {
-    private static final int MUSIC_NOTIFICATION_ID = 1;
+    static final int MUSIC_NOTIFICATION_ID = 1;
     private String songName;
     private MediaPlayer musicPlayer;
     private String channelID;
@@ -72,16 +70,8 @@ public class AudioService extends Service {
      * Importance is set to min, as sound for these notifications is not necessary.
      */
     private void notificationChannel() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            CharSequence channelName = getString(R.string.music_channel_name);
-            channelID = getString(R.string.music_channel_id);
-            int importance = NotificationManager.IMPORTANCE_MIN;
-            NotificationChannel musicChannel = new NotificationChannel(channelID, channelName,
-                    importance);
-            NotificationManager musicNotificationManager =
-                    getSystemService(NotificationManager.class);
-            musicNotificationManager.createNotificationChannel(musicChannel);
-        }
+        channelID = NotificationHelper.createChannel(this, R.string.music_channel_id,
+                R.string.music_channel_name, NotificationManager.IMPORTANCE_MIN);
         startNotifications();
     }
 
@@ -0,0 +1,36 @@
+package com.finalproject;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boot Receiver brings a session that was running when the device shut down back up to date.
+ * <p>
+ * A reboot clears the session's phase alarm. Loading the stored session rebases it onto
+ * the new boot's clock and schedules the alarm again, and a session that finished while the
+ * device was off is recorded straight away, as PlantReceiver would have.
+ */
+public class BootReceiver extends BroadcastReceiver {
+    private static final ExecutorService RECEIVER = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "boot-receiver"));
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
+            Context appContext = context.getApplicationContext();
+            PendingResult pendingResult = goAsync();
+            RECEIVER.execute(() -> {
+                try {
+                    // loads, rebases and re-arms the session, recording it if it has finished
+                    PlantReceiver.recordFinishedSession(appContext);
+                } finally {
+                    pendingResult.finish();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.finalproject;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.finalproject.focus.DayCache;
+
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * App-scoped source of today's date, as an epoch day.
+ * <p>
+ * The current day's bounds are cached, so today() is cheap enough to call from anywhere,
+ * on any thread. A single day-change event is published at local midnight, and whenever the
+ * time zone or clock is changed, so screens showing today's stats can refresh.
+ */
+public class DayClock {
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable midnightCheck = this::checkDay;
+    private final AtomicLong lastDay = new AtomicLong();
+    private final MutableLiveData<Long> _day = new MutableLiveData<>();
+    private volatile DayCache days = new DayCache(TimeZone.getDefault());
+
+    DayClock(Context context) {
+        lastDay.set(today());
+        _day.setValue(lastDay.get());
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_DATE_CHANGED);
+        // these are system broadcasts, so they're still delivered to an unexported receiver
+        ContextCompat.registerReceiver(context.getApplicationContext(), new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+                    days = new DayCache(TimeZone.getDefault());
+                }
+                checkDay();
+            }
+        }, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+        scheduleMidnightCheck();
+    }
+
+    /**
+     * Getter for the app's day clock.
+     *
+     * @param context any context
+     * @return the day clock owned by FocusApplication
+     */
+    public static DayClock get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getDayClock();
+    }
+
+    /**
+     * @return today's local epoch day
+     */
+    public long today() {
+        long today = days.dayOf(System.currentTimeMillis());
+        // catches a change of day even if the midnight check was delayed by the device sleeping
+        long previous = lastDay.get();
+        if (today != previous && lastDay.compareAndSet(previous, today)) {
+            _day.postValue(today);
+        }
+        return today;
+    }
+
+    /**
+     * Getter for the day cache, used to place wall-clock times on local days.
+     *
+     * @return day bounds for the current time zone
+     */
+    public DayCache getDays() {
+        return days;
+    }
+
+    /**
+     * Getter for _day
+     *
+     * @return _day, today's epoch day, updated once each time the day changes
+     */
+    public LiveData<Long> getDay() {
+        return _day;
+    }
+
+    private void checkDay() {
+        today();
+        scheduleMidnightCheck();
+    }
+
+    /**
+     * Schedules the next check for just after local midnight.
+     */
+    private void scheduleMidnightCheck() {
+        handler.removeCallbacks(midnightCheck);
+        long now = System.currentTimeMillis();
+        handler.postDelayed(midnightCheck, days.nextDayStart(now) - now + 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.finalproject;
+
+import android.content.Context;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.finalproject.focus.EventBus;
+
+/**
+ * Access to the app's EventBus, and lifecycle-aware subscriptions to it.
+ */
+public final class Events {
+
+    private Events() {
+    }
+
+    /**
+     * Getter for the app's event bus.
+     *
+     * @param context any context
+     * @return the event bus owned by FocusApplication
+     */
+    public static EventBus get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getEventBus();
+    }
+
+    /**
+     * Subscribes while the owner is started, like LiveData: events are only delivered between
+     * onStart and onStop, and the subscription is dropped when the owner is destroyed. An
+     * unclaimed OnceEvent is delivered each time the owner starts again.
+     *
+     * @param context    any context
+     * @param owner      lifecycle the subscription follows
+     * @param type       class of event to receive
+     * @param subscriber receives the events, on the posting thread
+     * @param <E>        type of event
+     */
+    @MainThread
+    public static <E> void observe(Context context, LifecycleOwner owner, Class<E> type,
+                                   EventBus.Subscriber<? super E> subscriber) {
+        EventBus bus = get(context);
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            private EventBus.Subscription subscription;
+
+            @Override
+            public void onStart(@NonNull LifecycleOwner lifecycleOwner) {
+                subscription = bus.subscribe(type, subscriber);
+            }
+
+            @Override
+            public void onStop(@NonNull LifecycleOwner lifecycleOwner) {
+                subscription.cancel();
+                subscription = null;
+            }
+
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner lifecycleOwner) {
+                lifecycleOwner.getLifecycle().removeObserver(this);
+            }
+        });
+    }
+}
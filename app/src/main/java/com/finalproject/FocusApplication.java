@@ -0,0 +1,115 @@
+package com.finalproject;
+
+import android.app.Application;
+
+import com.finalproject.focus.EventBus;
+
+/**
+ * Holds the components that live as long as the app's process, so every activity, fragment
+ * and receiver shares one instance of each.
+ */
+public class FocusApplication extends Application {
+    private final EventBus eventBus = new EventBus();
+    private SettingsStore settingsStore;
+    private DayClock dayClock;
+    private FocusStats focusStats;
+    private SessionHistory sessionHistory;
+    private HistoryTransfer historyTransfer;
+    private HttpClient httpClient;
+    private QuoteRepository quoteRepository;
+    private SongCatalog songCatalog;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        settingsStore = new SettingsStore(this);
+        dayClock = new DayClock(this);
+        focusStats = new FocusStats(settingsStore);
+        sessionHistory = new SessionHistory(this, settingsStore);
+        historyTransfer = new HistoryTransfer(this, sessionHistory);
+        httpClient = new HttpClient(this);
+        quoteRepository = new QuoteRepository(this, settingsStore, httpClient);
+        songCatalog = new SongCatalog(this);
+    }
+
+    /**
+     * Getter for the event bus
+     *
+     * @return the app's in-process event bus, see Events
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Getter for the settings store
+     *
+     * @return the app's stored settings and stats
+     */
+    public SettingsStore getSettingsStore() {
+        return settingsStore;
+    }
+
+    /**
+     * Getter for the day clock
+     *
+     * @return the app's source of today's date
+     */
+    public DayClock getDayClock() {
+        return dayClock;
+    }
+
+    /**
+     * Getter for the focus stats
+     *
+     * @return the app's counters for today's stats
+     */
+    public FocusStats getFocusStats() {
+        return focusStats;
+    }
+
+    /**
+     * Getter for the session history
+     *
+     * @return the app's session history
+     */
+    public SessionHistory getSessionHistory() {
+        return sessionHistory;
+    }
+
+    /**
+     * Getter for the history transfer
+     *
+     * @return exports and imports the app's session history
+     */
+    public HistoryTransfer getHistoryTransfer() {
+        return historyTransfer;
+    }
+
+    /**
+     * Getter for the HTTP client
+     *
+     * @return the app's shared request queue and response cache
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Getter for the quote repository
+     *
+     * @return the app's buffered source of quotes
+     */
+    public QuoteRepository getQuoteRepository() {
+        return quoteRepository;
+    }
+
+    /**
+     * Getter for the song catalog
+     *
+     * @return the app's catalog of songs, read once at startup
+     */
+    public SongCatalog getSongCatalog() {
+        return songCatalog;
+    }
+}
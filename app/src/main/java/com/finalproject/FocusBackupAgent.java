@@ -0,0 +1,27 @@
+package com.finalproject;
+
+import android.app.backup.BackupAgentHelper;
+import android.app.backup.FileBackupHelper;
+import android.app.backup.SharedPreferencesBackupHelper;
+
+/**
+ * Key/value backup agent for the app's data: the FocusData shared preferences (settings and
+ * stats), backed up whole as they're small, the quotes already shown, and session history,
+ * backed up incrementally by SessionBackupHelper.
+ * <p>
+ * With an agent of its own the app is left out of Auto Backup, so anything not added here isn't
+ * backed up or transferred. That's deliberate for the running session, kept by SessionStore in a
+ * file of its own, and for data that's rebuilt on its own: fetched quotes and rate limits.
+ */
+public class FocusBackupAgent extends BackupAgentHelper {
+    private static final String PREFS_KEY = "prefs";
+    private static final String QUOTES_KEY = "quotes";
+    private static final String SESSIONS_KEY = "sessions";
+
+    @Override
+    public void onCreate() {
+        addHelper(PREFS_KEY, new SharedPreferencesBackupHelper(this, SettingsStore.PREFS_NAME));
+        addHelper(QUOTES_KEY, new FileBackupHelper(this, QuoteRepository.SEEN_FILE_NAME));
+        addHelper(SESSIONS_KEY, new SessionBackupHelper(SessionHistory.get(this)));
+    }
+}
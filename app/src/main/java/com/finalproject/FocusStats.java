@@ -0,0 +1,106 @@
+package com.finalproject;
+
+import android.content.Context;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.finalproject.focus.SessionRecord;
+import com.finalproject.focus.StatCounters;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * App-scoped counters for today's focus time and focus sessions, the single source of truth
+ * for today's stats.
+ * <p>
+ * Updates are atomic and never block once the stored counts have loaded; they're written to
+ * SettingsStore in the background, coalesced so a burst of updates is one commit. See
+ * StatCounters for what survives a crash. Receivers that may be the last thing to run before
+ * the process ends call flush() so their updates are written before they return.
+ */
+public class FocusStats {
+    // bursts within two seconds, or of up to eight updates, share one commit
+    static final StatCounters.FlushPolicy FLUSH_POLICY = new StatCounters.FlushPolicy(8, 2_000);
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "focus-stats"));
+    private final Future<StatCounters> counters;
+    private final MutableLiveData<StatCounters.Counts> _counts = new MutableLiveData<>();
+
+    /**
+     * The counters are restored from the settings store once it has loaded, on the flush thread.
+     *
+     * @param settingsStore where the counters are stored
+     */
+    FocusStats(SettingsStore settingsStore) {
+        counters = flusher.submit(() -> {
+            StatCounters.Counts restored = settingsStore.awaitLoaded().getFocusCounts();
+            _counts.postValue(restored);
+            return new StatCounters(restored, FLUSH_POLICY,
+                    counts -> settingsStore.updateAndWait(
+                            settings -> settings.withFocusCounts(counts)),
+                    (task, delayMillis) ->
+                            flusher.schedule(task, delayMillis, TimeUnit.MILLISECONDS));
+        });
+    }
+
+    /**
+     * Getter for the app's focus stats.
+     *
+     * @param context any context
+     * @return the focus stats owned by FocusApplication
+     */
+    public static FocusStats get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getFocusStats();
+    }
+
+    /**
+     * Getter for _counts
+     *
+     * @return _counts, set once restored and updated after every recorded session
+     */
+    public LiveData<StatCounters.Counts> getCounts() {
+        return _counts;
+    }
+
+    /**
+     * Adds a completed session to the counters, from any thread.
+     *
+     * @param record completed session, or part of one
+     * @return the counts after this update
+     */
+    public StatCounters.Counts add(SessionRecord record) {
+        StatCounters.Counts counts = getCounters().add(record.getEpochDay(),
+                record.getFocusMillis(), record.getFocusPhases());
+        _counts.postValue(counts);
+        return counts;
+    }
+
+    /**
+     * Writes any pending updates before returning.
+     */
+    @WorkerThread
+    public void flush() {
+        getCounters().flush();
+    }
+
+    /**
+     * Only waits in the moments after the app starts, before the stored counts have loaded.
+     */
+    private StatCounters getCounters() {
+        try {
+            return counters.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,160 +1,293 @@
 package com.finalproject;
 
 import android.app.Application;
-import android.os.CountDownTimer;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import java.util.Locale;
-import java.util.concurrent.TimeUnit;
-
+import com.finalproject.focus.ClockText;
+import com.finalproject.focus.EventBus;
+import com.finalproject.focus.FocusSession;
+import com.finalproject.focus.SessionAnchor;
+import com.finalproject.focus.SessionCompleted;
+import com.finalproject.focus.SessionPlan;
+import com.finalproject.focus.SessionState;
 
 /**
  * This View Model class manages clock-tick execution and helps to update plant images.
+ * <p>
+ * Session timing is handled by FocusSession, from the focus module. This class schedules
+ * clock-ticks on the main looper, and publishes the session as a stream of immutable
+ * SessionState snapshots, emitted only when the phase or plant stage changes. The seconds left
+ * are rendered into one reusable ClockText, which is set again only when the displayed second
+ * changes, so a tick that only moves the clock builds no objects of its own.
+ * <p>
+ * Ticks run once per second only while the clock is being observed; otherwise the next
+ * wakeup is taken from the plan, at the next plant stage or phase end. An ongoing notification,
+ * counted down by the system, is updated at those milestones only. The running session is
+ * persisted by SessionStore, so it keeps going (and is recorded by its phase alarms) while
+ * the app is in the background or has been killed.
  */
-public class FocusViewModel extends AndroidViewModel {
-    private static final long CLOCK_TICK = 1000;
-    private static final long FOCUS_TIME = (long) 5.00;
-    private static final int FLOWER_ARR_SIZE = 3;
-    private int plantCount = 0;
-    private final long focusDuration = TimeUnit.MINUTES.toMillis(FOCUS_TIME);
-    private CountDownTimer countDownTimer;
-    private final MutableLiveData<String> _clockTime = new MutableLiveData<>();
-    private final MutableLiveData<String> _plantCount = new MutableLiveData<>();
-    private final MutableLiveData<String> _sproutTime = new MutableLiveData<>();
+public class FocusViewModel extends AndroidViewModel implements FocusSession.Listener {
+    private SessionPlan plan = SessionPlan.CLASSIC;
+    private final SessionStore sessionStore;
+    private final SessionNotification sessionNotification;
+    private int stage = 0;
+    private boolean notificationDirty = false;
+    private final Handler clockHandler = new Handler(Looper.getMainLooper());
+    private final Runnable clockTick = this::onClockTick;
+    private FocusSession focusSession;
+    private boolean ticksPaused = true;
+    private boolean clockObserved = false;
+    private final MutableLiveData<SessionState> _sessionState = new MutableLiveData<>();
+    private final ClockText clockText = new ClockText();
+    private final MutableLiveData<ClockText> _clockTime =
+            new ObservedLiveData<>(this::onClockObserved);
+    private final EventBus eventBus;
 
     public FocusViewModel(@NonNull Application application) {
         super(application);
+        sessionStore = new SessionStore(application);
+        sessionNotification = new SessionNotification(application);
+        eventBus = Events.get(application);
+        showIdle(plan);
+    }
+
+    /**
+     * Getter for _sessionState
+     *
+     * @return _sessionState, the phase and plant stage of the session
+     */
+    public LiveData<SessionState> getSessionState() {
+        return _sessionState;
     }
 
     /**
      * Getter for _clockTime
      *
-     * @return _clockTime, time in seconds
+     * @return _clockTime, the time left in the current phase; the same buffer is set again each
+     * time the displayed second changes, so it should be read, not kept
      */
-    public LiveData<String> getTime() {
+    public LiveData<ClockText> getClockTime() {
         return _clockTime;
     }
 
     /**
-     * Getter for _plantCount
+     * Getter for the session plan.
      *
-     * @return _plantCount, used to track position in current plant's drawable array.
+     * @return plan used by the next session started
      */
-    public LiveData<String> getPlantCount() {
-        return _plantCount;
+    public SessionPlan getPlan() {
+        return plan;
     }
 
     /**
-     * Getter for _sproutTime
+     * Setter for the session plan, takes effect from the next session started.
      *
-     * @return _sproutTime, the plant growth interval.
+     * @param plan focus, break and long-break phases to run
      */
-    public LiveData<String> getSproutTime() {
-        return _sproutTime;
+    public void setPlan(@NonNull SessionPlan plan) {
+        this.plan = plan;
+        if (!isSessionRunning()) {
+            showIdle(plan);
+        }
     }
 
     /**
-     * Getter for countdownTimer
+     * Helps to decide whether the leaf button may start a new session.
      *
-     * @return countDownTimer, helps to cancel timer when user exits the app
+     * @return true while a focus session is counting down
      */
-    public CountDownTimer getCountDownTimer() {
-        return countDownTimer;
+    public boolean isSessionRunning() {
+        return focusSession != null && focusSession.isRunning();
     }
 
     /**
-     * Uses TimeUnit class to convert milliseconds into minutes.
+     * Setter for _sessionState, distinct until changed.
      *
-     * @param millis current time, in milliseconds
-     * @return current number of minutes
+     * @param state latest snapshot of the session
      */
-    public long getMinutes(long millis) {
-        // ms are converted to min and second
-        return TimeUnit.MILLISECONDS.toMinutes(millis);
+    private void updateSessionState(SessionState state) {
+        if (!state.equals(_sessionState.getValue())) {
+            _sessionState.setValue(state);
+        }
     }
 
     /**
-     * Uses TimeUnit class to convert milliseconds into seconds.
+     * Setter for _clockTime, only set again when the displayed second changes.
      *
-     * @param millis current time, in milliseconds
-     * @return current number of seconds
+     * @param seconds whole seconds left in the current phase
      */
-    public long getSeconds(long millis) {
-        return TimeUnit.MILLISECONDS.toSeconds(millis) -
-                TimeUnit.MINUTES.toSeconds(TimeUnit.MILLISECONDS.toMinutes(millis));
+    private void updateClockTime(long seconds) {
+        if (clockText.setSeconds(seconds)) {
+            _clockTime.setValue(clockText);
+        }
     }
 
     /**
-     * Setter for mutable _clockTime, based on countdown-timer.
-     *
-     * @param tickTime formatted String representing current count-down time.
+     * Shows the plan's first phase, with its full length on the clock.
+     */
+    private void showIdle(SessionPlan plan) {
+        updateSessionState(SessionState.idle(plan));
+        updateClockTime(FocusSession.toDisplaySeconds(plan.getPhaseDuration(0)));
+    }
+
+    /**
+     * Starts the session plan (by default, a five minute timer) when the leaf button is pressed.
+     * <p>
+     * The session is anchored to elapsedRealtime, so the clock stays correct even if ticks are
+     * delayed; any growth milestones that were missed are delivered on the next tick.
+     **/
+    public void startCountDownTimer() {
+        pauseClockTicks();
+        long now = SystemClock.elapsedRealtime();
+        // the anchor is stored, and the phase alarm set, in the background; the running
+        // session itself is kept here
+        sessionStore.start(new SessionAnchor(now, System.currentTimeMillis(), plan, 0));
+        focusSession = new FocusSession(plan, this);
+        ticksPaused = false;
+        stage = 0;
+        notificationDirty = true;
+        focusSession.start(now);
+        scheduleClockTick();
+    }
+
+    /**
+     * Stops clock-ticks, used when the view model is cleared. The session itself keeps running,
+     * and is completed by its alarm if the app isn't opened again in time.
+     */
+    public void pauseClockTicks() {
+        ticksPaused = true;
+        clockHandler.removeCallbacks(clockTick);
+    }
+
+    /**
+     * Brings the clock up to date when the app becomes visible again. If the process was killed
+     * while a session was running, the session is restored from its stored anchor.
      */
-    public void updateClockTime(String tickTime) {
-        if (tickTime != null) {
-            _clockTime.setValue(tickTime);
+    public void resumeClockTicks() {
+        ticksPaused = false;
+        if (isSessionRunning()) {
+            clockHandler.removeCallbacks(clockTick);
+            onClockTick();
+        } else {
+            sessionStore.loadAsync(this::restoreSession);
         }
     }
 
     /**
-     * Setter for _plantCount, helps to track plant growth.
+     * Restores a session loaded from its stored anchor, unless a session was started or the
+     * ticks were paused while it was loading.
      *
-     * @param numPlant increments at a set interval currently, about every minute.
+     * @param anchor anchor of the stored session, or null if there isn't one
      */
-    public void updatePlantCount(String numPlant) {
-        if (numPlant != null) {
-            _plantCount.setValue(numPlant);
+    private void restoreSession(@Nullable SessionAnchor anchor) {
+        if (anchor == null || ticksPaused || isSessionRunning()) {
+            return;
         }
+        focusSession = new FocusSession(anchor.getPlan(), this);
+        stage = 0;
+        notificationDirty = true;
+        focusSession.start(anchor.getStartElapsedMillis());
+        clockHandler.removeCallbacks(clockTick);
+        onClockTick();
     }
 
     /**
-     * Setter for mutable _sproutTime, based on second count-down timer.
+     * Switches between display-rate and milestone-only ticks as the clock gains or loses its
+     * observers.
      *
-     * @param growthTime String representing an interval of about once per minute.
+     * @param observed true if the clock has at least one active observer
      */
-    public void updateSproutTime(String growthTime) {
-        if (growthTime != null) {
-            _sproutTime.setValue(growthTime);
+    private void onClockObserved(boolean observed) {
+        clockObserved = observed;
+        if (!ticksPaused && focusSession != null && focusSession.isRunning()) {
+            // brings the clock up to date straight away, then ticks at the new rate
+            clockHandler.removeCallbacks(clockTick);
+            onClockTick();
         }
     }
 
     /**
-     * Starts a five minute timer when the leaf button is pressed.
-     * <p>
-     * Milliseconds are converted to minutes and seconds, and formatted as a string.
-     **/
-    public void startCountDownTimer() {
-        countDownTimer = new CountDownTimer(focusDuration, CLOCK_TICK) {
-            @Override
-            public void onTick(long millis) {
-                // ms are converted to min and second
-                long minutes = getMinutes(millis);
-                long seconds = getSeconds(millis);
-                // formats time as a string, used to update clock-text
-                String sTime = String.format(Locale.ENGLISH, "%d:%02d", minutes, seconds);
-                updateClockTime(sTime);
-
-                String[] growthTime = { "3:50", "2:00", "0:30" };
-                for (String timeCheck: growthTime) {
-                    if (sTime.equals(timeCheck)) {
-                        if (plantCount < FLOWER_ARR_SIZE) {
-                            plantCount++;
-                            updatePlantCount(String.valueOf(plantCount));
-                            String updatePlant = "plant" + plantCount;
-                            updateSproutTime(updatePlant);
-                        }
-                    }
-                }
-            }
-
-            @Override
-            public void onFinish() {
-                cancel();
-                updatePlantCount("0");
-            }
-        }.start();
+     * Brings the session up to date, then schedules the next tick.
+     */
+    private void onClockTick() {
+        if (focusSession != null) {
+            focusSession.update(SystemClock.elapsedRealtime());
+            scheduleClockTick();
+        }
+    }
+
+    /**
+     * Schedules the next tick: on the next second boundary while the clock is on screen,
+     * otherwise at the next milestone worked out from the plan.
+     */
+    private void scheduleClockTick() {
+        if (focusSession.isRunning()) {
+            long now = SystemClock.elapsedRealtime();
+            long delay = clockObserved
+                    ? focusSession.millisUntilNextSecond(now)
+                    : focusSession.millisUntilNextMilestone(now);
+            clockHandler.postDelayed(clockTick, delay);
+        }
+    }
+
+    @Override
+    public void onTick(int phase, long remainingMillis) {
+        SessionPlan sessionPlan = focusSession.getPlan();
+        boolean running = focusSession.isRunning();
+        SessionPlan.PhaseType type = sessionPlan.getPhaseType(phase);
+        int stageCount = sessionPlan.getStageCount(phase);
+        // milestones are delivered before the tick, so this is one snapshot per update, and
+        // none at all when only the seconds have changed
+        SessionState state = _sessionState.getValue();
+        if (state == null || !state.matches(running, phase, type, stage, stageCount)) {
+            _sessionState.setValue(new SessionState(running, phase, type, stage, stageCount));
+        }
+        updateClockTime(FocusSession.toDisplaySeconds(remainingMillis));
+        // milestones delivered while catching up result in a single notification update
+        if (notificationDirty && focusSession.isRunning()) {
+            notificationDirty = false;
+            sessionNotification.show(sessionPlan, phase, stage, remainingMillis);
+        }
+    }
+
+    @Override
+    public void onStage(int phase, int stage) {
+        this.stage = stage;
+        notificationDirty = true;
+    }
+
+    @Override
+    public void onPhaseFinish(int phase, SessionPlan.PhaseType type) {
+        stage = 0;
+        notificationDirty = true;
+        if (type == SessionPlan.PhaseType.FOCUS) {
+            // the focus time itself is claimed from the stored session when it's recorded,
+            // so phases that finish while catching up are still only counted once
+            eventBus.post(new SessionCompleted(phase));
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        // the session keeps running; its alarm completes it without the view model
+        pauseClockTicks();
+        // nothing is left to show the stats; the phase alarms record the session
+        eventBus.discardUnclaimed(SessionCompleted.class);
+    }
+
+    @Override
+    public void onFinish() {
+        notificationDirty = false;
+        sessionNotification.cancel();
+        showIdle(focusSession.getPlan());
     }
 }
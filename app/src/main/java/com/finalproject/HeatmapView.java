@@ -0,0 +1,152 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.FocusHeatmap;
+
+import java.util.TimeZone;
+
+/**
+ * Year-view heatmap of focus sessions: one column per week, Monday at the top, each day
+ * coloured by its FocusHeatmap level.
+ * <p>
+ * The grid is cached in a small bitmap, a few texels per cell, which is scaled up without
+ * filtering when drawn. onDraw only draws that bitmap, so scrolling costs one blit per frame.
+ * When a new heatmap arrives only the cells whose level changed are redrawn into the cache,
+ * usually just today's; years the new heatmap shares with the old one aren't compared at all.
+ */
+public class HeatmapView extends View {
+    private static final int ROWS = 7;
+    // a leap year starting on a Sunday touches 54 weeks
+    private static final int COLUMNS = 54;
+    // each cell is drawn as a square of texels, followed by a one-texel gap
+    private static final int CELL_TEXELS = 4;
+    private static final int PITCH_TEXELS = CELL_TEXELS + 1;
+    private static final int CELL_PITCH_DP = 12;
+    private static final int[] LEVEL_COLORS = {
+            R.color.heatmap_none,
+            R.color.heatmap_low,
+            R.color.heatmap_medium,
+            R.color.heatmap_high,
+    };
+
+    private final Paint[] levelPaints = new Paint[LEVEL_COLORS.length];
+    private final Paint bitmapPaint = new Paint();
+    private final Rect destination = new Rect();
+    private final int cellPitch;
+    private final Bitmap cache = Bitmap.createBitmap(COLUMNS * PITCH_TEXELS, ROWS * PITCH_TEXELS,
+            Bitmap.Config.ARGB_8888);
+    private final Canvas cacheCanvas = new Canvas(cache);
+    private FocusHeatmap heatmap = FocusHeatmap.EMPTY;
+    private int year;
+
+    public HeatmapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        cellPitch = Math.round(CELL_PITCH_DP * getResources().getDisplayMetrics().density);
+        for (int level = 0; level < LEVEL_COLORS.length; level++) {
+            levelPaints[level] = new Paint();
+            levelPaints[level].setColor(ContextCompat.getColor(context, LEVEL_COLORS[level]));
+        }
+        // keeps the cells' edges sharp when the cache is scaled up
+        bitmapPaint.setFilterBitmap(false);
+        year = EpochDays.yearOf(
+                EpochDays.ofWallMillis(System.currentTimeMillis(), TimeZone.getDefault()));
+        drawYear();
+    }
+
+    /**
+     * Setter for the year shown, redrawing every cell if it changed.
+     *
+     * @param year calendar year
+     */
+    public void setYear(int year) {
+        if (this.year != year) {
+            this.year = year;
+            drawYear();
+            invalidate();
+        }
+    }
+
+    /**
+     * Setter for the heatmap, redrawing only the days whose level changed.
+     *
+     * @param next heatmap from session history
+     */
+    public void setHeatmap(@NonNull FocusHeatmap next) {
+        FocusHeatmap previous = heatmap;
+        heatmap = next;
+        if (next.sharesYear(previous, year)) {
+            return;
+        }
+        boolean changed = false;
+        long start = EpochDays.ofDate(year, 1, 1);
+        long end = EpochDays.ofDate(year + 1, 1, 1);
+        for (long day = start; day < end; day++) {
+            int level = next.getLevel(day);
+            if (level != previous.getLevel(day)) {
+                drawCell(day, level);
+                changed = true;
+            }
+        }
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = COLUMNS * cellPitch + getPaddingLeft() + getPaddingRight();
+        int height = ROWS * cellPitch + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec),
+                resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        destination.set(getPaddingLeft(), getPaddingTop(),
+                getPaddingLeft() + COLUMNS * cellPitch, getPaddingTop() + ROWS * cellPitch);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawBitmap(cache, null, destination, bitmapPaint);
+    }
+
+    /**
+     * Redraws every cell of the year into the cache.
+     */
+    private void drawYear() {
+        cache.eraseColor(0);
+        long start = EpochDays.ofDate(year, 1, 1);
+        long end = EpochDays.ofDate(year + 1, 1, 1);
+        for (long day = start; day < end; day++) {
+            drawCell(day, heatmap.getLevel(day));
+        }
+    }
+
+    /**
+     * Draws one day's cell into the cache.
+     */
+    private void drawCell(long epochDay, int level) {
+        long firstWeek = EpochDays.weekStart(EpochDays.ofDate(year, 1, 1));
+        int column = (int) ((epochDay - firstWeek) / 7);
+        int row = (int) (epochDay - EpochDays.weekStart(epochDay));
+        int left = column * PITCH_TEXELS;
+        int top = row * PITCH_TEXELS;
+        cacheCanvas.drawRect(left, top, left + CELL_TEXELS, top + CELL_TEXELS,
+                levelPaints[level]);
+    }
+}
@@ -0,0 +1,358 @@
+package com.finalproject;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.SessionCsv;
+import com.finalproject.focus.SessionRecord;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Exports session history to CSV or JSON, and imports it back.
+ * <p>
+ * Both directions stream: sessions are read from the database a cursor window at a time and
+ * written straight out, and imported files are parsed one session at a time as they're written,
+ * in batched transactions. Memory use stays the same however many years of history there are.
+ * <p>
+ * JSON is written as {"version": 1, "sessions": [{"date": ..., "start_wall_millis": ...,
+ * "focus_millis": ..., "focus_phases": ...}, ...]}, and CSV as described in SessionCsv.
+ */
+public class HistoryTransfer {
+
+    /**
+     * File format of exported history.
+     */
+    public enum Format {
+        CSV("text/csv", "focus_history.csv"),
+        JSON("application/json", "focus_history.json");
+
+        private final String mimeType;
+        private final String fileName;
+
+        Format(String mimeType, String fileName) {
+            this.mimeType = mimeType;
+            this.fileName = fileName;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Guesses the format of a file being imported from its type alone. Types are often
+         * missing or generic (application/octet-stream), so this is only used where the
+         * contents don't show the format.
+         *
+         * @param mimeType type reported for the file, may be null
+         * @return JSON for JSON types, otherwise CSV
+         */
+        public static Format of(@Nullable String mimeType) {
+            return mimeType != null && mimeType.contains("json") ? JSON : CSV;
+        }
+    }
+
+    private static final int VERSION = 1;
+    // leading whitespace read past when looking for the first character of an imported file
+    private static final int SNIFF_LIMIT = 1024;
+
+    private final ContentResolver contentResolver;
+    private final SessionHistory history;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "history-transfer"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    HistoryTransfer(Context context, SessionHistory history) {
+        this.contentResolver = context.getApplicationContext().getContentResolver();
+        this.history = history;
+    }
+
+    /**
+     * Getter for the app's history transfer.
+     *
+     * @param context any context
+     * @return the history transfer owned by FocusApplication
+     */
+    public static HistoryTransfer get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getHistoryTransfer();
+    }
+
+    /**
+     * Exports the whole history to a document, in the background.
+     *
+     * @param format file format to write
+     * @param uri    document picked by the user
+     * @param done   called on the main thread with the number of sessions, or -1 on failure
+     */
+    public void exportAsync(Format format, Uri uri, Consumer<Integer> done) {
+        io.execute(() -> {
+            int count;
+            try (OutputStream out = contentResolver.openOutputStream(uri, "wt")) {
+                if (out == null) {
+                    throw new IOException("could not open " + uri);
+                }
+                count = export(format, out);
+            } catch (IOException | RuntimeException e) {
+                Log.e("error", "Could not export history", e);
+                count = -1;
+            }
+            int result = count;
+            mainHandler.post(() -> done.accept(result));
+        });
+    }
+
+    /**
+     * Imports sessions from a document, in the background.
+     *
+     * @param uri  document picked by the user
+     * @param done called on the main thread with the number of sessions added, or -1 on failure
+     */
+    public void importAsync(Uri uri, Consumer<Integer> done) {
+        io.execute(() -> {
+            int count;
+            try (InputStream in = contentResolver.openInputStream(uri)) {
+                if (in == null) {
+                    throw new IOException("could not open " + uri);
+                }
+                count = importFrom(contentResolver.getType(uri), in);
+            } catch (IOException | RuntimeException e) {
+                Log.e("error", "Could not import history", e);
+                count = -1;
+            }
+            int result = count;
+            mainHandler.post(() -> done.accept(result));
+        });
+    }
+
+    /**
+     * Writes every stored session to a stream. The stream is flushed but not closed.
+     *
+     * @param format file format to write
+     * @param out    where the history is written
+     * @return number of sessions written
+     * @throws IOException if the stream can't be written
+     */
+    @WorkerThread
+    public int export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int count;
+        if (format == Format.CSV) {
+            writer.write(SessionCsv.HEADER);
+            writer.write('\n');
+            count = history.exportTo(record -> SessionCsv.writeRow(writer, record));
+        } else {
+            JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            json.name("version").value(VERSION);
+            json.name("sessions").beginArray();
+            count = history.exportTo(record -> writeJson(json, record));
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Reads sessions from a stream in whichever format it holds, adding any not already in the
+     * history. The format is told from the first character after any byte order mark and
+     * whitespace: '{' or '[' for JSON, anything else for CSV.
+     *
+     * @param mimeType type reported for the file, only used if the stream is blank; may be null
+     * @param in       history written by export
+     * @return number of sessions added
+     * @throws IOException if the stream can't be read, or isn't valid history
+     */
+    @WorkerThread
+    public int importFrom(@Nullable String mimeType, InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        return importFrom(sniffFormat(buffered, Format.of(mimeType)), buffered);
+    }
+
+    /**
+     * Reads sessions from a stream, adding any not already in the history.
+     *
+     * @param format file format to read
+     * @param in     history written by export
+     * @return number of sessions added
+     * @throws IOException if the stream can't be read, or isn't valid history
+     */
+    @WorkerThread
+    public int importFrom(Format format, InputStream in) throws IOException {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            return history.importFrom(csvSource(reader));
+        }
+        return history.importFrom(jsonSource(new JsonReader(reader)));
+    }
+
+    /**
+     * Skips a UTF-8 byte order mark, then peeks at the first other character without
+     * consuming it.
+     *
+     * @param in   stream positioned at the start of the file
+     * @param hint format to use if there's nothing to go on
+     * @return format of the file
+     */
+    private static Format sniffFormat(BufferedInputStream in, Format hint) throws IOException {
+        in.mark(3);
+        if (in.read() != 0xEF || in.read() != 0xBB || in.read() != 0xBF) {
+            in.reset();
+        }
+        in.mark(SNIFF_LIMIT);
+        int first = -1;
+        for (int i = 0; i < SNIFF_LIMIT; i++) {
+            int b = in.read();
+            if (b == -1 || !Character.isWhitespace(b)) {
+                first = b;
+                break;
+            }
+        }
+        in.reset();
+        if (first == '{' || first == '[') {
+            return Format.JSON;
+        }
+        return first == -1 ? hint : Format.CSV;
+    }
+
+    private static void writeJson(JsonWriter json, SessionRecord record) throws IOException {
+        json.beginObject();
+        json.name("date").value(EpochDays.format(record.getEpochDay()));
+        json.name("start_wall_millis").value(record.getStartWallMillis());
+        json.name("focus_millis").value(record.getFocusMillis());
+        json.name("focus_phases").value(record.getFocusPhases());
+        json.endObject();
+    }
+
+    /**
+     * Parses CSV rows as they're asked for, skipping the header and blank lines.
+     */
+    private static SessionHistory.RecordSource csvSource(BufferedReader reader) {
+        int[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.trim().isEmpty() || line.startsWith(SessionCsv.HEADER)) {
+                    continue;
+                }
+                try {
+                    return SessionCsv.parseRow(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("invalid session on line " + lineNumber[0], e);
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Parses the sessions array one object at a time, as they're asked for. Unknown names are
+     * skipped, so files from later versions with extra fields can still be read.
+     */
+    private static SessionHistory.RecordSource jsonSource(JsonReader json) {
+        return new SessionHistory.RecordSource() {
+            private boolean opened = false;
+            private boolean inSessions = false;
+
+            @Nullable
+            @Override
+            public SessionRecord next() throws IOException {
+                try {
+                    if (!opened) {
+                        opened = true;
+                        inSessions = openSessions();
+                    }
+                    if (!inSessions || !json.hasNext()) {
+                        return null;
+                    }
+                    return readSession();
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    throw new IOException("invalid session at " + json.getPath(), e);
+                }
+            }
+
+            /**
+             * Moves into the sessions array, skipping anything before it.
+             */
+            private boolean openSessions() throws IOException {
+                json.beginObject();
+                while (json.hasNext()) {
+                    if (json.nextName().equals("sessions")) {
+                        json.beginArray();
+                        return true;
+                    }
+                    json.skipValue();
+                }
+                return false;
+            }
+
+            private SessionRecord readSession() throws IOException {
+                long epochDay = 0;
+                long startWallMillis = 0;
+                long focusMillis = -1;
+                int focusPhases = -1;
+                boolean hasDate = false;
+                json.beginObject();
+                while (json.hasNext()) {
+                    String name = json.nextName();
+                    if (json.peek() == JsonToken.NULL) {
+                        json.skipValue();
+                        continue;
+                    }
+                    switch (name) {
+                        case "date":
+                            epochDay = EpochDays.parse(json.nextString());
+                            hasDate = true;
+                            break;
+                        case "start_wall_millis":
+                            startWallMillis = json.nextLong();
+                            break;
+                        case "focus_millis":
+                            focusMillis = json.nextLong();
+                            break;
+                        case "focus_phases":
+                            focusPhases = json.nextInt();
+                            break;
+                        default:
+                            json.skipValue();
+                    }
+                }
+                json.endObject();
+                if (!hasDate || focusMillis < 0 || focusPhases < 0) {
+                    throw new IllegalArgumentException("incomplete session");
+                }
+                return new SessionRecord(epochDay, startWallMillis, focusMillis, focusPhases);
+            }
+        };
+    }
+}
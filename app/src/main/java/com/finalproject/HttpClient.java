@@ -0,0 +1,131 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.android.volley.Cache;
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.Network;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.StringRequest;
+import com.finalproject.focus.SingleFlight;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * The app's single HTTP client: one Volley request queue, shared by everything that goes to
+ * the network, and started once for the life of the process.
+ * <p>
+ * The queue runs a fixed pool of THREAD_POOL_SIZE network threads. Requests go through
+ * HttpURLConnection, which keeps connections alive and reuses them for later requests to the
+ * same host. Responses are kept in a disk cache of at most CACHE_MAX_BYTES, evicting the least
+ * recently used; a stale cached response is revalidated with If-None-Match / If-Modified-Since,
+ * and a 304 reply is served from the cache without downloading the body again.
+ * <p>
+ * fetch coalesces concurrent GETs of the same URL into one request, and checks each request
+ * that does go out against a RateLimiter for its service.
+ */
+public class HttpClient {
+    static final int THREAD_POOL_SIZE = 2;
+    static final int CACHE_MAX_BYTES = 1024 * 1024;
+    private static final String CACHE_DIR = "http";
+
+    private final RequestQueue queue;
+    private final SingleFlight<String, String> inFlight = new SingleFlight<>();
+
+    /**
+     * Created once, by FocusApplication. Responses are delivered on the main thread.
+     *
+     * @param context any context
+     */
+    HttpClient(Context context) {
+        this(new File(context.getCacheDir(), CACHE_DIR), null);
+    }
+
+    /**
+     * @param cacheDir         directory of the response cache
+     * @param deliveryExecutor runs response callbacks, or null for the main thread
+     */
+    HttpClient(File cacheDir, @Nullable Executor deliveryExecutor) {
+        Cache cache = new DiskBasedCache(cacheDir, CACHE_MAX_BYTES);
+        Network network = new BasicNetwork(new HurlStack());
+        queue = deliveryExecutor == null
+                ? new RequestQueue(cache, network, THREAD_POOL_SIZE)
+                : new RequestQueue(cache, network, THREAD_POOL_SIZE,
+                new ExecutorDelivery(deliveryExecutor));
+        queue.start();
+    }
+
+    /**
+     * Getter for the app's HTTP client.
+     *
+     * @param context any context
+     * @return the HTTP client owned by FocusApplication
+     */
+    public static HttpClient get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getHttpClient();
+    }
+
+    /**
+     * Queues a request. Give it a tag with setTag if it may need to be cancelled.
+     *
+     * @param request request to send
+     * @param <T>     type of the parsed response
+     * @return the request, as queued
+     */
+    public <T> Request<T> add(Request<T> request) {
+        return queue.add(request);
+    }
+
+    /**
+     * Fetches a URL as text. A fetch of a URL that's already being fetched shares the request
+     * on its way and its result, rather than sending another.
+     *
+     * @param url      URL to GET
+     * @param limiter  rate limit of the service the URL belongs to
+     * @param callback receives the body, or null if the limit was reached or the request failed;
+     *                 called where responses are delivered, or straight away if over the limit
+     */
+    public void fetch(String url, RateLimiter limiter, Consumer<String> callback) {
+        if (!inFlight.join(url, callback)) {
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            Log.e("error", "Rate limit reached for " + url);
+            inFlight.complete(url, null);
+            return;
+        }
+        add(new StringRequest(Request.Method.GET, url,
+                body -> inFlight.complete(url, body),
+                volleyError -> {
+                    Log.e("error", "Could not fetch " + url, volleyError);
+                    inFlight.complete(url, null);
+                }));
+    }
+
+    /**
+     * Cancels every queued or running request with the given tag; their callbacks aren't
+     * called.
+     *
+     * @param tag tag given to the requests
+     */
+    public void cancelAll(Object tag) {
+        queue.cancelAll(tag);
+    }
+
+    /**
+     * Stops the network threads. Only used by tests; the app's client runs for the life of the
+     * process.
+     */
+    void stop() {
+        queue.stop();
+    }
+}
@@ -2,8 +2,6 @@ package com.finalproject;
 
 import android.Manifest;
 import android.content.Intent;
-import android.content.IntentFilter;
-import android.content.SharedPreferences;
 import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
@@ -24,12 +22,13 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.ProcessLifecycleOwner;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.finalproject.databinding.ActivityMainBinding;
+import com.finalproject.focus.SessionCompleted;
 import com.finalproject.fragments.*;
 
 import java.util.ArrayList;
@@ -46,24 +45,13 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
 
     // ViewModel & Plant Data
     private FocusViewModel focusViewModel;
-    private static int plantCount = 0;
-    private static final int FOCUS_TIME = 5;
-    private static int FOCUS_TOTAL = 0;
-    private static int FOCUS_SESSIONS = 0;
+    private int plantCount = 0;
 
-    // Notifications and Broadcast
+    // Notifications
     private static final int NOTIFICATION_REQUEST = 1;
-    private PlantReceiver plantReceiver;
-    private LocalBroadcastManager localBroadcastManager;
-    public static final String CUSTOM_BROADCAST = "com.final project.CUSTOM_BROADCAST";
-
-    // Shared Preferences
-    private AccessSharedPref sharedPreferences;
 
     // State
     private ActivityState activityState;
-    private String timeStart, timeEnd;
-    private boolean registerReceiver;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -85,7 +73,6 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
         initializeViews();
         initializeLists();
         displayRules();
-        createAndRegisterReceiver();
         addHomeFragment(savedInstanceState);
         clickListeners();
         updatePlant();
@@ -123,19 +110,9 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
     @Override
     public void onResume(@NonNull LifecycleOwner owner) {
         super.onResume();
-        createAndRegisterReceiver();
         activityState = ActivityState.RESUMED;
-        // retrieves stored time and session data from shared preferences helper class
-        int updatedTime = Integer.parseInt(sharedPreferences.getFocusTime());
-        int updatedSessions = Integer.parseInt(sharedPreferences.getFocusSessions());
-        // if dates match, focus stats are taken from shared preferences
-        if (sharedPreferences.compareDates()) {
-            if (updatedTime > FOCUS_TOTAL) {
-                FOCUS_TOTAL = updatedTime;
-                FOCUS_SESSIONS = updatedSessions;
-            }
-        }
-        focusViewModel.updatePlantCount("0");
+        // a session started earlier may still be running, or may have finished meanwhile
+        focusViewModel.resumeClockTicks();
     }
 
     @Override
@@ -143,34 +120,14 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
         super.onResumeFragments();
     }
 
-    @Override
-    public void onDestroy(@NonNull LifecycleOwner owner) {
-        // unregisters custom receiver
-        if (localBroadcastManager != null && registerReceiver) {
-            localBroadcastManager.unregisterReceiver(plantReceiver);
-        }
-    }
-
-    /**
-     * Tracks changes in _plantCount, which is updated in FocusViewModel.
-     *
-     * @param _plantCount current plant integer, assists in plant growth in home fragment.
-     */
-    private static void onChanged(String _plantCount) {
-        plantCount = Integer.parseInt(_plantCount);
-    }
-
     /**
-     * When MainActivity is paused or stopped, music and focus timers are stopped.
-     * Clock-time is also updated to initial time, of 5:00.
+     * When MainActivity is paused or stopped, music is stopped.
+     * The focus session keeps running: with the clock no longer observed, the view model only
+     * wakes at milestones, and the session notification shows the countdown meanwhile.
      */
     private void stopServiceAndTimers() {
         if (activityState != ActivityState.RESUMED) {
             pauseMediaPlayer();
-            focusViewModel.getCountDownTimer().cancel();
-            focusViewModel.updateClockTime(timeStart);
-            focusViewModel.updatePlantCount("0");
-            updateHomeFragment(0);
         }
     }
 
@@ -178,44 +135,50 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
      * Stops music playback. Used when app is exited.
      */
     public void pauseMediaPlayer() {
-        NotificationManagerCompat.from(getApplicationContext()).cancelAll();
+        // only the music notification is removed, the session notification stays
+        NotificationManagerCompat.from(getApplicationContext())
+                .cancel(AudioService.MUSIC_NOTIFICATION_ID);
         Intent musicIntent = new Intent(getApplicationContext(), AudioService.class);
         stopService(musicIntent);
     }
 
     /**
-     * Updates the clock's text display based on CountdownTimer in FocusViewModel.
-     * Once the time reaches zero, the updated focus session stats are sent to the plant receiver.
+     * Once a focus phase finishes, the updated stats are recorded and shown.
      * This is used to track daily focus stats.
      */
     private void updateClock() {
-        // if the time changes, stop-watch text updates too
-        focusViewModel.getTime().observe(this, _clockTick -> {
-            if (_clockTick != null) {
-                stopWatchView.setText(_clockTick);
-                if (_clockTick.equals(getString(R.string.time_end))) {
-                    Intent customIntent = new Intent(MainActivity.CUSTOM_BROADCAST);
-                    FOCUS_TOTAL += FOCUS_TIME;
-                    FOCUS_SESSIONS++;
-                    customIntent.putExtra("update_focus", FOCUS_TOTAL);
-                    customIntent.putExtra("focus_sessions", FOCUS_SESSIONS);
-                    // stats fragment is updated via the receiver class and shared preferences
-                    localBroadcastManager.sendBroadcast(customIntent);
-                    updateFragment(StatsFragment.class);
-                }
+        // the event is posted by the view model, even if clock-ticks were missed; it's held
+        // while the activity is stopped or being recreated, and claimed here exactly once
+        Events.observe(this, this, SessionCompleted.class, sessionCompleted -> {
+            if (sessionCompleted.claim()) {
+                // finished focus time is claimed from the stored session, so it's only counted
+                // once, even if the phase alarm sees it too; it's recorded in the background,
+                // before the stats fragment is shown
+                new SessionStore(this).recordFinishedFocusAsync(() -> {
+                    if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+                        updateFragment(StatsFragment.class);
+                    }
+                });
             }
         });
     }
 
     /**
-     * A broadcast is sent to the plant-receiver each time a focus interval passes.
+     * Updates the clock's text display and the plant image from FocusViewModel. The clock is
+     * only set again when its second changes, and each session snapshot is compared with what
+     * is already shown, so the home fragment is only touched when the plant stage has changed.
      */
     private void updatePlant() {
-        // updates at an interval, used to help show plant growth
-        focusViewModel.getSproutTime().observe(this, _sproutTime -> {
-            if (_sproutTime != null) {
-                // a count is updated within viewModel, is used to update plant image
-                focusViewModel.getPlantCount().observe(this, MainActivity::onChanged);
+        // the clock text re-uses one char buffer, so no String is built per tick
+        focusViewModel.getClockTime().observe(this, clockText ->
+                stopWatchView.setText(clockText.chars(), 0, clockText.length()));
+        focusViewModel.getSessionState().observe(this, _sessionState -> {
+            if (_sessionState == null) {
+                return;
+            }
+            // the stage count is used to show plant growth
+            if (_sessionState.getStage() != plantCount) {
+                plantCount = _sessionState.getStage();
                 updateHomeFragment(plantCount);
             }
         });
@@ -237,11 +200,9 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
 
         // leaf button starts a focus session,
         plantBtn.setOnClickListener(v -> {
-            String time = stopWatchView.getText().toString();
-            // timer can be re-started at 0:00 or 5:00 minutes
-            if (time.equals(timeStart) || time.equals(timeEnd)) {
+            // timer can be re-started once the previous session has finished or been cancelled
+            if (!focusViewModel.isSessionRunning()) {
                 focusViewModel.startCountDownTimer();
-                //focusViewModel.startPlantGrowthTimer();
             }
         });
     }
@@ -300,11 +261,11 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
      * @param plantCount current active plant, initially tracked in focusViewModel.
      */
     private void updateHomeFragment(int plantCount) {
-        String[] plantNames = getResources().getStringArray(R.array.flower_img);
-        // helps ensure plant count remains within bounds
-        if (plantCount > plantNames.length - 1) plantCount = 0;
-        int plantID = getResources().getIdentifier(plantNames[plantCount], "drawable",
-                getPackageName());
+        // flower_img, resolved to drawable IDs at build time
+        int[] plantIDs = ResourceTable.FLOWER_IMG;
+        // helps ensure plant count remains within bounds, plans may have more stages than images
+        if (plantCount > plantIDs.length - 1) plantCount = plantIDs.length - 1;
+        int plantID = plantIDs[plantCount];
         // creating and populating plant bundle
         Bundle plantBundle = new Bundle();
         plantBundle.putInt("plant_id", plantID);
@@ -330,38 +291,26 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
         }
     }
 
-    /**
-     * Registers plant receiver and local broadcast manager,
-     * These are used to send focus-session data to stats fragment.
-     */
-    private void createAndRegisterReceiver() {
-        // registers plant receiver so images can be updated
-        plantReceiver = new PlantReceiver(getApplicationContext());
-        localBroadcastManager = LocalBroadcastManager.getInstance(this);
-        localBroadcastManager.registerReceiver(plantReceiver, new IntentFilter(CUSTOM_BROADCAST));
-        registerReceiver = true;
-    }
 
     /**
      * Rules text is displayed on app's first load.
      */
     private void displayRules() {
-        boolean appOpened = sharedPreferences.
-                getSharedPreferences().getBoolean("first_opened",
-                true);
-        if (appOpened) {
-            try {
-                new AlertDialog.Builder(this, R.style.AlertDialogCustom)
-                        .setMessage(R.string.rules_text)
-                        .setCancelable(true)
-                        .show();
-                SharedPreferences.Editor editor = sharedPreferences.getSharedPreferences().edit();
-                editor.putBoolean("first_opened", false);
-                editor.apply(); // Save changes
-            } catch (Error err) {
-                Log.e("error", "Error displaying rules dialog");
+        SettingsStore settingsStore = SettingsStore.get(this);
+        // settings load in the background, so the dialog is shown once they're available
+        settingsStore.getSettings().observe(this, settings -> {
+            if (settings.isFirstOpened()) {
+                try {
+                    new AlertDialog.Builder(this, R.style.AlertDialogCustom)
+                            .setMessage(R.string.rules_text)
+                            .setCancelable(true)
+                            .show();
+                    settingsStore.update(s -> s.withFirstOpened(false));
+                } catch (Error err) {
+                    Log.e("error", "Error displaying rules dialog");
+                }
             }
-        }
+        });
     }
 
     /**
@@ -380,7 +329,6 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
 
     /**
      * View binding for components used as click listeners.
-     * Time strings, and shared preferences instance are also initialized here.
      */
     private void initializeViews() {
         stopWatchView = binding.textViewStopWatch;
@@ -389,10 +337,6 @@ public class MainActivity extends AppCompatActivity implements DefaultLifecycleO
         musicBtn = binding.imageButtonMusicButton;
         quoteBtn = binding.imageButtonQuoteButton;
         statsBtn = binding.imageButtonStatsButton;
-        // time and shared preferences
-        timeStart = getString(R.string.time_start);
-        timeEnd = getString(R.string.time_end);
-        sharedPreferences = new AccessSharedPref(getApplicationContext());
     }
 
     /**
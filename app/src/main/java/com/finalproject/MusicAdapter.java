@@ -1,6 +1,8 @@
 package com.finalproject;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,18 +12,110 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.widget.TooltipCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
+/**
+ * Shows pages of the song catalog. Each song's catalog position is its stable ID.
+ * <p>
+ * Pages appended as the list is scrolled are added with append, which only notifies the
+ * inserted range, so nothing already shown is compared again. Lists that change in other ways,
+ * such as the results of a search, are passed to submitList and diffed against the one shown
+ * on a background thread, and only the songs that changed are rebound.
+ */
 public class MusicAdapter extends RecyclerView.Adapter<MusicAdapter.MusicViewHolder> {
+    // songs from the end of the list at which the next page is asked for
+    static final int PREFETCH_DISTANCE = 10;
+    private static final Executor DIFFER = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "music-diff"));
 
-    private final List<SongOption> musicOptions;
     private final RecyclerViewClickListener listener;
+    private final Runnable onNearEnd;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private List<SongOption> songs = Collections.emptyList();
+    // counts the lists submitted, so a diff finished after a later submission is dropped
+    private int generation;
+    // true while a submitted list is being diffed
+    private boolean diffing;
 
-    public MusicAdapter(List<SongOption> musicOptions, RecyclerViewClickListener listener) {
-        this.musicOptions = musicOptions;
+    /**
+     * @param listener  receives clicks on the songs' play buttons
+     * @param onNearEnd called when a song near the end of the list is bound, to load more
+     */
+    public MusicAdapter(RecyclerViewClickListener listener, Runnable onNearEnd) {
         this.listener = listener;
+        this.onNearEnd = onNearEnd;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Shows a list that starts with the songs shown, followed by newly loaded ones. Only the
+     * added songs are notified. If a submitted list is still being diffed, the list is
+     * submitted too, as it may not start with the songs about to be shown.
+     *
+     * @param appended the songs shown, then the songs to add after them
+     */
+    public void append(List<SongOption> appended) {
+        if (diffing) {
+            submitList(appended);
+            return;
+        }
+        int shown = songs.size();
+        songs = appended;
+        if (appended.size() > shown) {
+            notifyItemRangeInserted(shown, appended.size() - shown);
+        }
+    }
+
+    /**
+     * Shows a list of songs, diffed against the one shown on a background thread. The latest
+     * list submitted wins.
+     *
+     * @param next songs to show; not changed afterwards
+     */
+    public void submitList(List<SongOption> next) {
+        int submitted = ++generation;
+        List<SongOption> previous = songs;
+        if (previous == next) {
+            diffing = false;
+            return;
+        }
+        diffing = true;
+        DIFFER.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() {
+                    return previous.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return next.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                    return previous.get(oldPosition).getId() == next.get(newPosition).getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                    return previous.get(oldPosition).equals(next.get(newPosition));
+                }
+            });
+            mainHandler.post(() -> {
+                if (submitted == generation) {
+                    diffing = false;
+                    songs = next;
+                    result.dispatchUpdatesTo(this);
+                }
+            });
+        });
     }
 
     @NonNull
@@ -35,12 +129,28 @@ public class MusicAdapter extends RecyclerView.Adapter<MusicAdapter.MusicViewHol
 
     @Override
     public void onBindViewHolder(@NonNull MusicViewHolder holder, int position) {
-        holder.bind(musicOptions.get(position));
+        holder.bind(songs.get(position));
+        if (position >= getItemCount() - PREFETCH_DISTANCE) {
+            onNearEnd.run();
+        }
     }
 
     @Override
     public int getItemCount() {
-        return musicOptions.size();
+        return songs.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return songs.get(position).getId();
+    }
+
+    /**
+     * @param position position of a song in the list shown
+     * @return the song
+     */
+    public SongOption getSong(int position) {
+        return songs.get(position);
     }
 
     /*
@@ -72,11 +182,10 @@ public class MusicAdapter extends RecyclerView.Adapter<MusicAdapter.MusicViewHol
         }
 
         public void bind(SongOption music) {
-            int imageID = context.getResources()
-                    .getIdentifier(music.image, "drawable", context.getPackageName());
-            albumImage.setImageResource(imageID);
-            genre.setText(music.genre);
-            songName.setText(music.songName);
+            // resolved once, when the catalog was read
+            albumImage.setImageResource(music.getImageId());
+            genre.setText(music.getGenre());
+            songName.setText(music.getSongName());
         }
 
         /**
@@ -86,7 +195,8 @@ public class MusicAdapter extends RecyclerView.Adapter<MusicAdapter.MusicViewHol
          */
         @Override
         public void onClick(View activeView) {
-            if (songListener != null) {
+            // no position while the list is being updated
+            if (songListener != null && getAdapterPosition() != RecyclerView.NO_POSITION) {
                 songListener.onClick(activeView, getAdapterPosition());
             }
         }
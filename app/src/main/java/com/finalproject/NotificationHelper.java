@@ -0,0 +1,41 @@
+package com.finalproject;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Build;
+
+import androidx.annotation.StringRes;
+
+/**
+ * Shared notification channel set-up, used by music playback and focus session notifications.
+ */
+public class NotificationHelper {
+
+    private NotificationHelper() {
+    }
+
+    /**
+     * Creates a notification channel (for APIs of 26 and higher). Creating a channel that
+     * already exists does nothing, so this is safe to call before every notification.
+     *
+     * @param context     context used to look up strings and the notification manager
+     * @param channelIdRes string resource holding the channel ID
+     * @param channelNameRes string resource holding the user-visible channel name
+     * @param importance  one of the NotificationManager importance levels
+     * @return the channel ID, for use with NotificationCompat.Builder
+     */
+    public static String createChannel(Context context, @StringRes int channelIdRes,
+                                       @StringRes int channelNameRes, int importance) {
+        String channelID = context.getString(channelIdRes);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            CharSequence channelName = context.getString(channelNameRes);
+            NotificationChannel channel = new NotificationChannel(channelID, channelName,
+                    importance);
+            NotificationManager notificationManager =
+                    context.getSystemService(NotificationManager.class);
+            notificationManager.createNotificationChannel(channel);
+        }
+        return channelID;
+    }
+}
@@ -0,0 +1,35 @@
+package com.finalproject;
+
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * MutableLiveData which reports when it gains its first active observer, and when it loses
+ * its last one. Helps producers skip work nobody is looking at.
+ *
+ * @param <T> type of data held
+ */
+public class ObservedLiveData<T> extends MutableLiveData<T> {
+
+    /**
+     * Notified on the main thread when the active state changes.
+     */
+    public interface ActiveListener {
+        void onActiveChanged(boolean active);
+    }
+
+    private final ActiveListener listener;
+
+    public ObservedLiveData(ActiveListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    protected void onActive() {
+        listener.onActiveChanged(true);
+    }
+
+    @Override
+    protected void onInactive() {
+        listener.onActiveChanged(false);
+    }
+}
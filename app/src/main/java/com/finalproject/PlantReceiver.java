@@ -3,37 +3,71 @@ package com.finalproject;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Bundle;
+import android.os.SystemClock;
+
+import androidx.annotation.WorkerThread;
+
+import com.finalproject.focus.SessionAnchor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * Plant Receiver receives broadcasts from MainActivity, and updates data in shared preferences.
- * Updated data is accessed by the stats fragment.
+ * Plant Receiver receives the session's alarm at the end of each phase, and records the finished
+ * focus time in FocusStats and session history. Updated data is accessed by the stats fragment.
+ * It then schedules the alarm for the next phase, and posts the notification for it, so the
+ * notification stays up to date without the app; it's removed once the session has finished.
+ * <p>
+ * It is registered in the manifest, so the alarm can record the result even if the app's process
+ * was killed while the session was running. Phases that finish while the app is open are
+ * recorded through the EventBus instead, see MainActivity.
+ * <p>
+ * The recording and writes are done on a background thread, with the broadcast kept pending
+ * (goAsync) until they have finished.
  */
 public class PlantReceiver extends BroadcastReceiver {
-
-    protected Context context;
-
-    PlantReceiver(Context context) {
-        this.context = context;
-    }
+    private static final ExecutorService RECEIVER = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "plant-receiver"));
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        String action = intent.getAction();
-        assert action != null;
-        // is true when a focus session has finished
-        if (MainActivity.CUSTOM_BROADCAST.equals(action)) {
-            Bundle extras = intent.getExtras();
-            // bundle code
-            if (extras != null) {
-                AccessSharedPref sharedPref = new AccessSharedPref(context);
-                // bundle is accessed updated info is available re: focus stats
-                if (extras.containsKey("update_focus")) {
-                    int focusTotal = extras.getInt("update_focus");
-                    int focusSession = extras.getInt("focus_sessions");
-                    sharedPref.storeFocusStats(focusTotal, focusSession);
+        if (SessionStore.ACTION_SESSION_ALARM.equals(intent.getAction())) {
+            Context appContext = context.getApplicationContext();
+            PendingResult pendingResult = goAsync();
+            RECEIVER.execute(() -> {
+                try {
+                    recordFinishedSession(appContext);
+                } finally {
+                    pendingResult.finish();
                 }
-            }
+            });
+        }
+    }
+
+    /**
+     * Records the finished phases and writes them out, then moves the alarm and the notification
+     * on to the phase running now, as the alarm does.
+     *
+     * @param context application context
+     */
+    @WorkerThread
+    static void recordFinishedSession(Context context) {
+        SessionStore sessionStore = new SessionStore(context);
+        // finished focus time is claimed from the stored session, so it's only counted once
+        sessionStore.recordFinishedFocus();
+        SessionAnchor anchor = sessionStore.scheduleNextAlarm();
+        SessionNotification sessionNotification = new SessionNotification(context);
+        if (anchor == null) {
+            sessionNotification.cancel();
+        } else {
+            long now = SystemClock.elapsedRealtime();
+            int phase = anchor.phaseAt(now);
+            sessionNotification.show(anchor.getPlan(), phase, anchor.stagesReachedAt(now),
+                    anchor.getPhaseEndElapsedMillisAt(now) - now);
         }
+        // the process may end once the alarm is handled, so the stats and the history are
+        // written now
+        FocusStats.get(context).flush();
+        SessionHistory.get(context).flush();
     }
 }
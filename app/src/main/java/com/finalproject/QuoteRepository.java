@@ -0,0 +1,339 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.finalproject.focus.BloomFilter;
+import com.finalproject.focus.Quote;
+import com.finalproject.focus.QuoteCorpus;
+import com.finalproject.focus.QuoteRing;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * App-scoped source of the quotes shown on the quote screen.
+ * <p>
+ * Quotes are fetched from zenquotes.io in batches, and wait in a QuoteRing that's saved to
+ * a file after every change, so they outlast the process and are there when offline. Showing
+ * the next quote takes it from the buffer in memory, with no network on the way; once fewer
+ * than REFILL_BELOW are left, another batch is fetched in the background, at most
+ * RATE_CAPACITY at once and one more every RATE_REFILL_MILLIS, whatever the restarts.
+ * <p>
+ * Every quote let into the buffer is also put in a BloomFilter of SEEN_BITS bits, saved next
+ * to the buffer, and fetched quotes it matches are skipped, so quotes aren't repeated. A
+ * false match only skips a quote that hadn't been seen.
+ * <p>
+ * When the buffer is empty, say on first run or after a long time offline, a random quote is
+ * taken from the QuoteCorpus bundled in the assets instead. The corpus is memory-mapped, so a
+ * quote costs one index lookup and one small read, and the rest of it is never loaded.
+ * <p>
+ * The buffer is loaded and saved on a background thread, and guarded by this object's lock.
+ */
+public class QuoteRepository {
+    static final int CAPACITY = 100;
+    static final int REFILL_BELOW = 10;
+    static final int RATE_CAPACITY = 5;
+    static final long RATE_REFILL_MILLIS = 10 * 60_000L;
+    // returns a batch of 50 random quotes
+    private static final String BATCH_URL = "https://zenquotes.io/api/quotes";
+    private static final String FILE_NAME = "quotes.ring";
+    static final String SEEN_FILE_NAME = "quotes.seen";
+    static final int SEEN_BITS = 1 << 16;
+    static final int SEEN_HASHES = 4;
+    private static final String CORPUS_ASSET = "quotes.bin";
+    // random picks tried before settling for a corpus quote that may have been seen
+    private static final int CORPUS_TRIES = 8;
+
+    private final Context context;
+    private final SettingsStore settingsStore;
+    private final HttpClient httpClient;
+    private final RateLimiter rateLimiter;
+    private final AtomicFile file;
+    private final AtomicFile seenFile;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "quotes"));
+    private final MutableLiveData<Quote> _quote = new MutableLiveData<>();
+    private final Random random = new Random();
+    // both null until loaded
+    private QuoteRing ring;
+    private BloomFilter seen;
+    // null until loaded, or if the asset can't be mapped
+    private QuoteCorpus corpus;
+    // a quote was asked for while none were waiting, so the next one to arrive is shown
+    private boolean waiting;
+
+    QuoteRepository(Context context, SettingsStore settingsStore, HttpClient httpClient) {
+        this.context = context.getApplicationContext();
+        this.settingsStore = settingsStore;
+        this.httpClient = httpClient;
+        rateLimiter = new RateLimiter(context, "zenquotes", RATE_CAPACITY, RATE_REFILL_MILLIS);
+        file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+        seenFile = new AtomicFile(new File(context.getFilesDir(), SEEN_FILE_NAME));
+        io.execute(this::load);
+    }
+
+    /**
+     * Getter for the app's quote repository.
+     *
+     * @param context any context
+     * @return the quote repository owned by FocusApplication
+     */
+    public static QuoteRepository get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getQuoteRepository();
+    }
+
+    /**
+     * Getter for _quote
+     *
+     * @return _quote, the quote being shown, or no value if none has come from the buffer yet
+     */
+    public LiveData<Quote> getQuote() {
+        return _quote;
+    }
+
+    /**
+     * Shows the next waiting quote straight away, or one from the bundled corpus if none are
+     * waiting. Before the buffer has loaded, the next quote is shown as soon as it has. The shown
+     * quote is also stored in the settings, as the last one seen.
+     */
+    @MainThread
+    public void showNext() {
+        Quote next;
+        synchronized (this) {
+            next = ring == null ? null : takeNext();
+            waiting = next == null;
+        }
+        if (next != null) {
+            show(next);
+            io.execute(() -> {
+                save();
+                saveSeen();
+            });
+        }
+        refillIfLow();
+    }
+
+    /**
+     * Takes the oldest waiting quote, or a random corpus quote not seen before. Called holding
+     * this object's lock.
+     *
+     * @return the quote, or null if none are waiting and there's no corpus
+     */
+    @Nullable
+    private Quote takeNext() {
+        Quote next = ring.poll();
+        if (next != null || corpus == null || corpus.size() == 0) {
+            return next;
+        }
+        for (int i = 0; i < CORPUS_TRIES; i++) {
+            next = corpus.get(random.nextInt(corpus.size()));
+            if (!seen.mightContain(next.getText())) {
+                break;
+            }
+        }
+        seen.put(next.getText());
+        return next;
+    }
+
+    private void show(Quote quote) {
+        _quote.postValue(quote);
+        settingsStore.update(s -> s.withQuote(quote.getText(), quote.getAuthor()));
+    }
+
+    /**
+     * Fetches another batch, unless enough quotes are waiting. A batch already on its way is
+     * shared rather than fetched again.
+     */
+    private void refillIfLow() {
+        synchronized (this) {
+            // refilled once loaded instead, if it's needed then
+            if (ring == null || ring.size() >= REFILL_BELOW) {
+                return;
+            }
+        }
+        httpClient.fetch(BATCH_URL, rateLimiter, body -> {
+            if (body != null) {
+                io.execute(() -> accept(body));
+            }
+        });
+    }
+
+    /**
+     * Adds the quotes in a fetched batch that haven't been seen before to the buffer, on the
+     * io thread.
+     */
+    @WorkerThread
+    private void accept(String body) {
+        List<Quote> batch = parseBatch(body);
+        Quote next = null;
+        synchronized (this) {
+            // the buffer was loaded first, on this same thread
+            for (Quote quote : batch) {
+                if (!seen.mightContain(quote.getText()) && ring.offer(quote)) {
+                    seen.put(quote.getText());
+                }
+            }
+            if (waiting) {
+                next = takeNext();
+                waiting = next == null;
+            }
+        }
+        if (next != null) {
+            show(next);
+        }
+        save();
+        saveSeen();
+    }
+
+    /**
+     * Reads the quotes in a zenquotes.io batch. Entries that can't be read are skipped.
+     *
+     * @param body JSON array of objects, each with the quote as "q" and the author as "a"
+     * @return the quotes read, in order
+     */
+    static List<Quote> parseBatch(String body) {
+        List<Quote> quotes = new ArrayList<>();
+        try {
+            JSONArray array = new JSONArray(body);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject entry = array.optJSONObject(i);
+                if (entry != null && entry.has("q")) {
+                    quotes.add(new Quote(entry.optString("q"), entry.optString("a")));
+                }
+            }
+        } catch (JSONException e) {
+            Log.e("error", "Could not parse quotes", e);
+        }
+        return quotes;
+    }
+
+    /**
+     * Loads the saved buffer and filter and maps the corpus, on the io thread, and shows a
+     * quote if one was asked for.
+     */
+    @WorkerThread
+    private void load() {
+        QuoteRing loaded;
+        try (FileInputStream in = file.openRead()) {
+            loaded = QuoteRing.read(in, CAPACITY);
+        } catch (FileNotFoundException e) {
+            loaded = new QuoteRing(CAPACITY);
+        } catch (IOException e) {
+            Log.e("error", "Could not read saved quotes", e);
+            loaded = new QuoteRing(CAPACITY);
+        }
+        BloomFilter loadedSeen;
+        try (FileInputStream in = seenFile.openRead()) {
+            loadedSeen = BloomFilter.read(in);
+        } catch (FileNotFoundException e) {
+            loadedSeen = new BloomFilter(SEEN_BITS, SEEN_HASHES);
+        } catch (IOException e) {
+            Log.e("error", "Could not read seen quotes", e);
+            loadedSeen = new BloomFilter(SEEN_BITS, SEEN_HASHES);
+        }
+        QuoteCorpus mapped = mapCorpus();
+        Quote next = null;
+        synchronized (this) {
+            ring = loaded;
+            seen = loadedSeen;
+            corpus = mapped;
+            if (waiting) {
+                next = takeNext();
+                waiting = next == null;
+            }
+        }
+        if (next != null) {
+            show(next);
+            save();
+            saveSeen();
+        }
+        refillIfLow();
+    }
+
+    /**
+     * Maps the bundled corpus read-only. The asset is stored uncompressed, so it can be mapped
+     * straight from the APK.
+     *
+     * @return the corpus, or null if it can't be mapped
+     */
+    @WorkerThread
+    @Nullable
+    private QuoteCorpus mapCorpus() {
+        try (AssetFileDescriptor asset = context.getAssets().openFd(CORPUS_ASSET);
+             FileInputStream in = asset.createInputStream()) {
+            // the mapping stays valid once the file is closed
+            return new QuoteCorpus(in.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                    asset.getStartOffset(), asset.getLength()));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.e("error", "Could not map quote corpus", e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the saved buffer with the quotes now waiting, on the io thread.
+     */
+    @WorkerThread
+    private void save() {
+        List<Quote> quotes;
+        synchronized (this) {
+            quotes = ring.toList();
+        }
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            QuoteRing.write(quotes, out);
+            file.finishWrite(out);
+        } catch (IOException e) {
+            Log.e("error", "Could not save quotes", e);
+            if (out != null) {
+                file.failWrite(out);
+            }
+        }
+    }
+
+    /**
+     * Replaces the saved filter, on the io thread.
+     */
+    @WorkerThread
+    private void saveSeen() {
+        FileOutputStream out = null;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(SEEN_BITS / 8 + 16);
+            synchronized (this) {
+                seen.write(bytes);
+            }
+            out = seenFile.startWrite();
+            bytes.writeTo(out);
+            seenFile.finishWrite(out);
+        } catch (IOException e) {
+            Log.e("error", "Could not save seen quotes", e);
+            if (out != null) {
+                seenFile.failWrite(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.finalproject.focus.TokenBucket;
+
+/**
+ * Limits the rate of calls to one outbound service with a TokenBucket that's stored, so the
+ * limit holds across restarts rather than starting again full each time.
+ * <p>
+ * The stored state is read the first time a call is made, and written after every call.
+ */
+public class RateLimiter {
+    private static final String PREFS_NAME = "RateLimits";
+
+    private final Context context;
+    private final String name;
+    private final int capacity;
+    private final long refillMillis;
+    // guarded by this; null until first used
+    private TokenBucket bucket;
+
+    /**
+     * @param context      any context
+     * @param name         names the service, and the stored state
+     * @param capacity     most calls allowed at once
+     * @param refillMillis time after which one more call is allowed
+     */
+    public RateLimiter(Context context, String name, int capacity, long refillMillis) {
+        this.context = context.getApplicationContext();
+        this.name = name;
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+    }
+
+    /**
+     * Takes a call from the limit if one is left.
+     *
+     * @return true if the call may be made
+     */
+    public synchronized boolean tryAcquire() {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (bucket == null) {
+            bucket = prefs.contains(name + "_updated")
+                    ? new TokenBucket(capacity, refillMillis,
+                    prefs.getFloat(name + "_tokens", capacity),
+                    prefs.getLong(name + "_updated", 0))
+                    : new TokenBucket(capacity, refillMillis);
+        }
+        boolean acquired = bucket.tryAcquire(System.currentTimeMillis());
+        prefs.edit()
+                .putFloat(name + "_tokens", (float) bucket.getTokens())
+                .putLong(name + "_updated", bucket.getUpdatedMillis())
+                .apply();
+        return acquired;
+    }
+}
@@ -0,0 +1,185 @@
+package com.finalproject;
+
+import android.app.backup.BackupDataInputStream;
+import android.app.backup.BackupDataOutput;
+import android.app.backup.BackupHelper;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.finalproject.focus.SessionDelta;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Backs up session history incrementally, as a series of SessionDelta chunks.
+ * <p>
+ * Each backup writes one new chunk, holding only the sessions recorded since the previous
+ * backup, under the next key in sequence ("0", "1", ...). Earlier chunks stay in the backup
+ * set untouched, so a backup's size and cost depend on what's new, not on the whole history.
+ * Once MAX_CHUNKS chunks have built up, they're replaced by a single chunk of everything.
+ * <p>
+ * The backup state records the last session row backed up and the range of chunk keys in use.
+ * Restoring replays every chunk through SessionHistory.importFrom, which skips sessions it
+ * already has, so chunks can be restored in any order.
+ */
+class SessionBackupHelper implements BackupHelper {
+    static final int MAX_CHUNKS = 32;
+    private static final String TAG = "SessionBackupHelper";
+
+    private final SessionHistory history;
+    // chunk keys seen while restoring
+    private int restoredFirstChunk = Integer.MAX_VALUE;
+    private int restoredNextChunk = 0;
+
+    SessionBackupHelper(SessionHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public void performBackup(ParcelFileDescriptor oldState, BackupDataOutput data,
+                              ParcelFileDescriptor newState) {
+        State state = State.read(oldState);
+        try {
+            history.flush();
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            State next;
+            if (state.nextChunk - state.firstChunk >= MAX_CHUNKS) {
+                // compacts everything into one chunk, then removes the ones it replaces
+                long lastId = writeDelta(history, 0, chunk);
+                for (int key = state.firstChunk; key < state.nextChunk; key++) {
+                    data.writeEntityHeader(String.valueOf(key), -1);
+                }
+                next = new State(lastId, state.nextChunk, state.nextChunk + 1);
+            } else {
+                long lastId = writeDelta(history, state.lastId, chunk);
+                if (lastId == state.lastId) {
+                    // nothing new, so nothing is sent
+                    state.write(newState);
+                    return;
+                }
+                next = new State(lastId, state.firstChunk, state.nextChunk + 1);
+            }
+            byte[] bytes = chunk.toByteArray();
+            data.writeEntityHeader(String.valueOf(next.nextChunk - 1), bytes.length);
+            data.writeEntityData(bytes, bytes.length);
+            next.write(newState);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not back up session history", e);
+            // the old state is kept, so the next backup tries the same sessions again
+            state.write(newState);
+        }
+    }
+
+    @Override
+    public void restoreEntity(BackupDataInputStream data) {
+        try {
+            int key = Integer.parseInt(data.getKey());
+            readDelta(history, data);
+            restoredFirstChunk = Math.min(restoredFirstChunk, key);
+            restoredNextChunk = Math.max(restoredNextChunk, key + 1);
+        } catch (IOException | NumberFormatException e) {
+            Log.e(TAG, "Could not restore session history chunk " + data.getKey(), e);
+        }
+    }
+
+    @Override
+    public void writeNewStateDescription(ParcelFileDescriptor newState) {
+        // everything now stored is already in the restored chunks
+        int firstChunk = restoredNextChunk == 0 ? 0 : restoredFirstChunk;
+        new State(history.getLastRowId(), firstChunk, restoredNextChunk).write(newState);
+    }
+
+    /**
+     * Writes the sessions stored after a given row as one chunk.
+     *
+     * @param history session history to read
+     * @param afterId last row already backed up, or 0 for all of them
+     * @param out     where the chunk is written
+     * @return last row written, or afterId if there were none
+     * @throws IOException if the chunk can't be written
+     */
+    @WorkerThread
+    static long writeDelta(SessionHistory history, long afterId, OutputStream out)
+            throws IOException {
+        SessionDelta.Writer writer = new SessionDelta.Writer(out);
+        return history.exportAfter(afterId, writer::write);
+    }
+
+    /**
+     * Replays one chunk into session history.
+     *
+     * @param history session history to add to
+     * @param in      chunk written by writeDelta
+     * @return number of sessions added
+     * @throws IOException if the chunk can't be read
+     */
+    @WorkerThread
+    static int readDelta(SessionHistory history, InputStream in) throws IOException {
+        SessionDelta.Reader reader = new SessionDelta.Reader(in);
+        return history.importFrom(reader::next);
+    }
+
+    /**
+     * What the last backup covered: sessions up to lastId, in chunks firstChunk to nextChunk - 1.
+     */
+    static final class State {
+        private static final int VERSION = 1;
+        private static final State NONE = new State(0, 0, 0);
+
+        final long lastId;
+        final int firstChunk;
+        final int nextChunk;
+
+        State(long lastId, int firstChunk, int nextChunk) {
+            this.lastId = lastId;
+            this.firstChunk = firstChunk;
+            this.nextChunk = nextChunk;
+        }
+
+        /**
+         * @param oldState state written by the last backup, or null before the first one
+         * @return the stored state, or NONE if there isn't one that can be read
+         */
+        static State read(@Nullable ParcelFileDescriptor oldState) {
+            if (oldState == null) {
+                return NONE;
+            }
+            // the descriptor belongs to the backup manager, so the stream isn't closed
+            DataInputStream in =
+                    new DataInputStream(new FileInputStream(oldState.getFileDescriptor()));
+            try {
+                if (in.readInt() != VERSION) {
+                    return NONE;
+                }
+                return new State(in.readLong(), in.readInt(), in.readInt());
+            } catch (IOException e) {
+                // a missing or unreadable state means a full backup
+                return NONE;
+            }
+        }
+
+        void write(ParcelFileDescriptor newState) {
+            DataOutputStream out =
+                    new DataOutputStream(new FileOutputStream(newState.getFileDescriptor()));
+            try {
+                out.writeInt(VERSION);
+                out.writeLong(lastId);
+                out.writeInt(firstChunk);
+                out.writeInt(nextChunk);
+                out.flush();
+            } catch (IOException e) {
+                Log.e(TAG, "Could not write backup state", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.finalproject.focus.DayTotal;
+import com.finalproject.focus.FocusHeatmap;
+import com.finalproject.focus.SessionRecord;
+import com.finalproject.focus.StatsRollup;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * App-scoped history of completed focus sessions, backed by SQLite.
+ * <p>
+ * Sessions are recorded from any thread without blocking: each record joins a queue, and a
+ * single background thread writes everything queued so far in one transaction, so a burst of
+ * sessions costs one commit. Day-range queries read a covering index keyed by epoch day.
+ * <p>
+ * The stats screen's totals (today, week, month and streak) are a StatsRollup, folded forward
+ * with each batch and stored with it, then published as LiveData. Showing them never touches
+ * past sessions, however many there are.
+ * <p>
+ * The year-view heatmap is a FocusHeatmap, built once from the day totals when the history is
+ * opened, then updated for just the days in each batch.
+ * <p>
+ * The whole history can be streamed out and back in a session at a time, see HistoryTransfer.
+ */
+public class SessionHistory {
+    // sessions imported per transaction
+    static final int IMPORT_BATCH = 500;
+
+    /**
+     * Receives sessions as they're read out of the history, one at a time.
+     */
+    public interface RecordSink {
+        void write(SessionRecord record) throws IOException;
+    }
+
+    /**
+     * Supplies sessions to import, one at a time.
+     */
+    public interface RecordSource {
+        /**
+         * @return the next session, or null once there are none left
+         */
+        @Nullable
+        SessionRecord next() throws IOException;
+    }
+
+    private final SessionHistoryDb db;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "session-history"));
+    private final ConcurrentLinkedQueue<SessionRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    private final MutableLiveData<StatsRollup> _rollup = new MutableLiveData<>();
+    private final MutableLiveData<FocusHeatmap> _heatmap = new MutableLiveData<>();
+    // only used on the writer thread
+    private StatsRollup rollup;
+    private FocusHeatmap heatmap;
+
+    /**
+     * Created once, by FocusApplication. If the database doesn't exist yet, the stats kept in
+     * shared preferences are copied in as they were loaded, before any new session was added
+     * to them.
+     *
+     * @param context       any context
+     * @param settingsStore source of the stats to migrate
+     */
+    SessionHistory(Context context, SettingsStore settingsStore) {
+        db = new SessionHistoryDb(context.getApplicationContext(),
+                () -> SessionHistoryDb.toRecord(settingsStore.awaitLoaded().getFocusCounts()));
+        writer.execute(this::loadRollup);
+        writer.execute(this::loadHeatmap);
+    }
+
+    /**
+     * Getter for the app's session history.
+     *
+     * @param context any context
+     * @return the session history owned by FocusApplication
+     */
+    public static SessionHistory get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getSessionHistory();
+    }
+
+    /**
+     * Getter for _rollup, set once the stored totals have been loaded
+     *
+     * @return _rollup, running totals for today, this week, this month and the current streak
+     */
+    public LiveData<StatsRollup> getRollup() {
+        return _rollup;
+    }
+
+    /**
+     * Getter for _heatmap, set once built from the stored history
+     *
+     * @return _heatmap, the focus level of every day with a session
+     */
+    public LiveData<FocusHeatmap> getHeatmap() {
+        return _heatmap;
+    }
+
+    /**
+     * Queues a completed session to be written in the background.
+     *
+     * @param record session to store
+     */
+    public void record(SessionRecord record) {
+        pending.add(record);
+        // one write is scheduled per batch, later records join it until it starts
+        if (writeScheduled.compareAndSet(false, true)) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Blocks until every session recorded so far has been written.
+     */
+    @WorkerThread
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Sums focus time and phases per day, over a range of days.
+     *
+     * @param fromEpochDay first day, inclusive
+     * @param toEpochDay   last day, inclusive
+     * @return one total for each day with at least one session, in day order
+     */
+    @WorkerThread
+    public List<DayTotal> queryDays(long fromEpochDay, long toEpochDay) {
+        List<DayTotal> days = new ArrayList<>();
+        String[] range = { String.valueOf(fromEpochDay), String.valueOf(toEpochDay) };
+        try (Cursor cursor = db.getReadableDatabase().rawQuery("SELECT "
+                + SessionHistoryDb.COLUMN_EPOCH_DAY + ", "
+                + "SUM(" + SessionHistoryDb.COLUMN_FOCUS_MILLIS + "), "
+                + "SUM(" + SessionHistoryDb.COLUMN_FOCUS_PHASES + ") "
+                + "FROM " + SessionHistoryDb.TABLE_SESSIONS + " "
+                + "WHERE " + SessionHistoryDb.COLUMN_EPOCH_DAY + " BETWEEN ? AND ? "
+                + "GROUP BY " + SessionHistoryDb.COLUMN_EPOCH_DAY + " "
+                + "ORDER BY " + SessionHistoryDb.COLUMN_EPOCH_DAY, range)) {
+            while (cursor.moveToNext()) {
+                days.add(new DayTotal(cursor.getLong(0), cursor.getLong(1), cursor.getInt(2)));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Streams every stored session, oldest first, to the sink. The cursor reads the table a
+     * window at a time, so memory use doesn't grow with the history.
+     *
+     * @param sink receives each session
+     * @return number of sessions written
+     * @throws IOException if the sink fails
+     */
+    @WorkerThread
+    public int exportTo(RecordSink sink) throws IOException {
+        int[] count = {0};
+        exportAfter(0, record -> {
+            sink.write(record);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Streams the sessions stored after a given row, oldest first, to the sink. Used for
+     * incremental backups, which only need what's been added since the last one.
+     *
+     * @param afterId row id of the last session already handled, or 0 for all of them
+     * @param sink    receives each session
+     * @return row id of the last session written, or afterId if there were none
+     * @throws IOException if the sink fails
+     */
+    @WorkerThread
+    public long exportAfter(long afterId, RecordSink sink) throws IOException {
+        long lastId = afterId;
+        try (Cursor cursor = db.getReadableDatabase().rawQuery("SELECT _id, "
+                + SessionHistoryDb.COLUMN_EPOCH_DAY + ", "
+                + SessionHistoryDb.COLUMN_START_WALL + ", "
+                + SessionHistoryDb.COLUMN_FOCUS_MILLIS + ", "
+                + SessionHistoryDb.COLUMN_FOCUS_PHASES + " "
+                + "FROM " + SessionHistoryDb.TABLE_SESSIONS + " WHERE _id > ? ORDER BY _id",
+                new String[]{ String.valueOf(afterId) })) {
+            while (cursor.moveToNext()) {
+                sink.write(new SessionRecord(cursor.getLong(1), cursor.getLong(2),
+                        cursor.getLong(3), cursor.getInt(4)));
+                lastId = cursor.getLong(0);
+            }
+        }
+        return lastId;
+    }
+
+    /**
+     * @return row id of the latest stored session, or 0 if there are none
+     */
+    @WorkerThread
+    public long getLastRowId() {
+        try (Cursor cursor = db.getReadableDatabase().rawQuery("SELECT MAX(_id) FROM "
+                + SessionHistoryDb.TABLE_SESSIONS, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    /**
+     * Imports sessions on the writer thread, in transactions of IMPORT_BATCH sessions, and
+     * waits until they've been written. Sessions already in the history are skipped, so
+     * importing the same file twice adds nothing.
+     *
+     * @param source sessions to import, read as they're written
+     * @return number of sessions added
+     * @throws IOException if the source fails; batches already written are kept
+     */
+    @WorkerThread
+    public int importFrom(RecordSource source) throws IOException {
+        try {
+            return writer.submit(() -> importRecords(source)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Opens the database and publishes the stored totals, on the writer thread. Totals left
+     * missing by an import that didn't finish are rebuilt first.
+     */
+    private void loadRollup() {
+        SQLiteDatabase database = db.getWritableDatabase();
+        if (!SessionHistoryDb.hasRollup(database)) {
+            rebuildRollup(database);
+        }
+        rollup = SessionHistoryDb.readRollup(database);
+        _rollup.postValue(rollup);
+    }
+
+    /**
+     * Rebuilds the stored totals from every stored session, on the writer thread.
+     */
+    private void rebuildRollup(SQLiteDatabase database) {
+        database.beginTransaction();
+        try {
+            SessionHistoryDb.writeRollup(database, SessionHistoryDb.rebuildRollup(database));
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    /**
+     * Builds the heatmap from every stored day total, on the writer thread. Only days with a
+     * session are read, through the covering index.
+     */
+    private void loadHeatmap() {
+        FocusHeatmap loaded = FocusHeatmap.EMPTY;
+        for (DayTotal day : queryDays(Long.MIN_VALUE, Long.MAX_VALUE)) {
+            loaded = loaded.withLevel(day.getEpochDay(),
+                    FocusHeatmap.levelOf(day.getFocusPhases()));
+        }
+        heatmap = loaded;
+        _heatmap.postValue(heatmap);
+    }
+
+    /**
+     * Writes imported sessions batch by batch, on the writer thread. Imported sessions may be
+     * from any day, so the stored rollup is removed with the first batch, rebuilt once after the
+     * last, and the heatmap reloaded.
+     */
+    private int importRecords(RecordSource source) throws IOException {
+        SQLiteDatabase database = db.getWritableDatabase();
+        int added = 0;
+        boolean cleared = false;
+        try (SQLiteStatement exists = database.compileStatement("SELECT COUNT(*) FROM "
+                + SessionHistoryDb.TABLE_SESSIONS + " WHERE "
+                + SessionHistoryDb.COLUMN_EPOCH_DAY + " = ? AND "
+                + SessionHistoryDb.COLUMN_START_WALL + " = ? AND "
+                + SessionHistoryDb.COLUMN_FOCUS_MILLIS + " = ? AND "
+                + SessionHistoryDb.COLUMN_FOCUS_PHASES + " = ?");
+             SQLiteStatement insert = compileInsert(database)) {
+            SessionRecord record = source.next();
+            while (record != null) {
+                database.beginTransaction();
+                try {
+                    for (int i = 0; i < IMPORT_BATCH && record != null; i++) {
+                        bindRecord(exists, record);
+                        if (exists.simpleQueryForLong() == 0) {
+                            bindRecord(insert, record);
+                            insert.executeInsert();
+                            added++;
+                        }
+                        record = source.next();
+                    }
+                    if (!cleared) {
+                        // a rollup that's missing is rebuilt on the next open, should the
+                        // import not finish
+                        SessionHistoryDb.clearRollup(database);
+                    }
+                    database.setTransactionSuccessful();
+                    cleared = true;
+                } finally {
+                    database.endTransaction();
+                }
+            }
+        } finally {
+            // batches committed before a failure are counted and shown too
+            if (cleared) {
+                rebuildRollup(database);
+                rollup = SessionHistoryDb.readRollup(database);
+                _rollup.postValue(rollup);
+                loadHeatmap();
+            }
+        }
+        return added;
+    }
+
+    private static SQLiteStatement compileInsert(SQLiteDatabase database) {
+        return database.compileStatement("INSERT INTO "
+                + SessionHistoryDb.TABLE_SESSIONS + " ("
+                + SessionHistoryDb.COLUMN_EPOCH_DAY + ", "
+                + SessionHistoryDb.COLUMN_START_WALL + ", "
+                + SessionHistoryDb.COLUMN_FOCUS_MILLIS + ", "
+                + SessionHistoryDb.COLUMN_FOCUS_PHASES + ") VALUES (?, ?, ?, ?)");
+    }
+
+    private static void bindRecord(SQLiteStatement statement, SessionRecord record) {
+        statement.bindLong(1, record.getEpochDay());
+        statement.bindLong(2, record.getStartWallMillis());
+        statement.bindLong(3, record.getFocusMillis());
+        statement.bindLong(4, record.getFocusPhases());
+    }
+
+    /**
+     * Writes every queued session in a single transaction, on the writer thread, along with
+     * the totals updated to include them.
+     */
+    private void writePending() {
+        // cleared before draining, so a record added meanwhile schedules another write
+        writeScheduled.set(false);
+        SessionRecord record = pending.poll();
+        if (record == null) {
+            return;
+        }
+        SQLiteDatabase database = db.getWritableDatabase();
+        StatsRollup updated = rollup;
+        long firstDay = Long.MAX_VALUE;
+        long lastDay = Long.MIN_VALUE;
+        database.beginTransaction();
+        try (SQLiteStatement insert = compileInsert(database)) {
+            while (record != null) {
+                bindRecord(insert, record);
+                insert.executeInsert();
+                updated = updated.plus(record.getEpochDay(), record.getFocusMillis(),
+                        record.getFocusPhases());
+                firstDay = Math.min(firstDay, record.getEpochDay());
+                lastDay = Math.max(lastDay, record.getEpochDay());
+                record = pending.poll();
+            }
+            SessionHistoryDb.writeRollup(database, updated);
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+        // only published once committed
+        rollup = updated;
+        _rollup.postValue(rollup);
+        // a batch is almost always a single day, so this re-reads one day total
+        FocusHeatmap updatedHeatmap = heatmap;
+        for (DayTotal day : queryDays(firstDay, lastDay)) {
+            updatedHeatmap = updatedHeatmap.withLevel(day.getEpochDay(),
+                    FocusHeatmap.levelOf(day.getFocusPhases()));
+        }
+        if (updatedHeatmap != heatmap) {
+            heatmap = updatedHeatmap;
+            _heatmap.postValue(heatmap);
+        }
+    }
+}
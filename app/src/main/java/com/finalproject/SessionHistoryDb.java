@@ -0,0 +1,198 @@
+package com.finalproject;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.finalproject.focus.SessionRecord;
+import com.finalproject.focus.StatCounters;
+import com.finalproject.focus.StatsRollup;
+
+import java.util.function.Supplier;
+
+/**
+ * SQLite schema for session history: one row per completed session, indexed by epoch day.
+ * <p>
+ * The database runs in write-ahead-log mode, so reads aren't blocked while a batch of sessions
+ * is being written. The index covers every column a day-range query reads, so those queries
+ * are answered from the index alone, without touching the table. It also ends with the start
+ * time, so the duplicate check made while importing is answered from it too.
+ * <p>
+ * A single-row rollup table holds the stats screen's running totals. It's updated in the same
+ * transaction as the sessions it covers, so the two can never disagree. An import removes the
+ * row in its first batch and writes it once after its last; a rollup found missing, after an
+ * import that didn't finish, is rebuilt from the sessions.
+ */
+class SessionHistoryDb extends SQLiteOpenHelper {
+    static final String DATABASE_NAME = "session_history.db";
+    private static final int DATABASE_VERSION = 3;
+
+    static final String TABLE_SESSIONS = "sessions";
+    static final String COLUMN_EPOCH_DAY = "epoch_day";
+    static final String COLUMN_START_WALL = "start_wall";
+    static final String COLUMN_FOCUS_MILLIS = "focus_millis";
+    static final String COLUMN_FOCUS_PHASES = "focus_phases";
+
+    static final String TABLE_ROLLUP = "rollup";
+    static final String COLUMN_STATE = "state";
+
+    private final Supplier<SessionRecord> migrated;
+
+    /**
+     * @param context  application context
+     * @param migrated stats to copy in when the database is created, see toRecord;
+     *                 only called then, on the thread opening the database
+     */
+    SessionHistoryDb(Context context, Supplier<SessionRecord> migrated) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.migrated = migrated;
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_SESSIONS + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_EPOCH_DAY + " INTEGER NOT NULL, "
+                + COLUMN_START_WALL + " INTEGER NOT NULL, "
+                + COLUMN_FOCUS_MILLIS + " INTEGER NOT NULL, "
+                + COLUMN_FOCUS_PHASES + " INTEGER NOT NULL)");
+        createSessionsIndex(db);
+        createRollupTable(db);
+        StatsRollup rollup = StatsRollup.EMPTY;
+        // runs in the same transaction as the schema, so the old stats are migrated exactly once
+        SessionRecord migrated = this.migrated.get();
+        if (migrated != null) {
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_EPOCH_DAY, migrated.getEpochDay());
+            values.put(COLUMN_START_WALL, migrated.getStartWallMillis());
+            values.put(COLUMN_FOCUS_MILLIS, migrated.getFocusMillis());
+            values.put(COLUMN_FOCUS_PHASES, migrated.getFocusPhases());
+            db.insert(TABLE_SESSIONS, null, values);
+            rollup = rollup.plus(migrated.getEpochDay(), migrated.getFocusMillis(),
+                    migrated.getFocusPhases());
+        }
+        writeRollup(db, rollup);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            // the rollup is built from existing history once; after that it's kept up to date
+            createRollupTable(db);
+            writeRollup(db, rebuildRollup(db));
+        }
+        if (oldVersion < 3) {
+            db.execSQL("DROP INDEX IF EXISTS sessions_by_day");
+            createSessionsIndex(db);
+        }
+    }
+
+    private static void createSessionsIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX sessions_by_day ON " + TABLE_SESSIONS + " ("
+                + COLUMN_EPOCH_DAY + ", " + COLUMN_FOCUS_MILLIS + ", " + COLUMN_FOCUS_PHASES + ", "
+                + COLUMN_START_WALL + ")");
+    }
+
+    /**
+     * Builds the rollup from every stored day total, in day order. Only used when sessions
+     * may have been added out of order, as the totals are otherwise kept up to date.
+     *
+     * @param db open database
+     * @return totals covering every stored session
+     */
+    static StatsRollup rebuildRollup(SQLiteDatabase db) {
+        StatsRollup rollup = StatsRollup.EMPTY;
+        try (Cursor cursor = db.rawQuery("SELECT " + COLUMN_EPOCH_DAY + ", "
+                + "SUM(" + COLUMN_FOCUS_MILLIS + "), SUM(" + COLUMN_FOCUS_PHASES + ") "
+                + "FROM " + TABLE_SESSIONS + " GROUP BY " + COLUMN_EPOCH_DAY + " "
+                + "ORDER BY " + COLUMN_EPOCH_DAY, null)) {
+            while (cursor.moveToNext()) {
+                rollup = rollup.plus(cursor.getLong(0), cursor.getLong(1), cursor.getInt(2));
+            }
+        }
+        return rollup;
+    }
+
+    private static void createRollupTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ROLLUP + " ("
+                + "_id INTEGER PRIMARY KEY CHECK (_id = 0), "
+                + COLUMN_STATE + " TEXT NOT NULL)");
+    }
+
+    /**
+     * Reads the stored rollup, a single row.
+     *
+     * @param db open database
+     * @return the stored totals, or empty totals if they can't be read
+     */
+    static StatsRollup readRollup(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery("SELECT " + COLUMN_STATE + " FROM " + TABLE_ROLLUP
+                + " WHERE _id = 0", null)) {
+            if (cursor.moveToFirst()) {
+                return StatsRollup.decode(cursor.getString(0));
+            }
+        } catch (IllegalArgumentException e) {
+            Log.e("error", "Could not read stats rollup", e);
+        }
+        return StatsRollup.EMPTY;
+    }
+
+    /**
+     * @param db open database
+     * @return true if a rollup is stored
+     */
+    static boolean hasRollup(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery("SELECT 1 FROM " + TABLE_ROLLUP + " WHERE _id = 0",
+                null)) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    /**
+     * Removes the stored rollup, until it's rebuilt. Used by imports, which add sessions out of
+     * order, so the totals can only be rebuilt once they're all written.
+     *
+     * @param db open database
+     */
+    static void clearRollup(SQLiteDatabase db) {
+        db.delete(TABLE_ROLLUP, null, null);
+    }
+
+    /**
+     * Replaces the stored rollup. Callers write it in the same transaction as the sessions
+     * it was updated with.
+     *
+     * @param db     open database
+     * @param rollup updated totals
+     */
+    static void writeRollup(SQLiteDatabase db, StatsRollup rollup) {
+        ContentValues values = new ContentValues();
+        values.put("_id", 0);
+        values.put(COLUMN_STATE, rollup.encode());
+        db.insertWithOnConflict(TABLE_ROLLUP, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Turns the daily counters kept before session history existed into a record for that day.
+     * Individual sessions weren't stored, so the record holds the day's totals, with an unknown
+     * start time.
+     *
+     * @param counts counters as loaded from the settings store
+     * @return a record of the stored day's totals, or null if there are none
+     */
+    @Nullable
+    static SessionRecord toRecord(StatCounters.Counts counts) {
+        long day = counts.getEpochDay();
+        int phases = counts.getFocusPhases(day);
+        if (counts == StatCounters.Counts.NONE || phases <= 0) {
+            return null;
+        }
+        return new SessionRecord(day, 0, counts.getFocusMillis(day), phases);
+    }
+}
@@ -0,0 +1,102 @@
+package com.finalproject;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.finalproject.focus.SessionPlan;
+
+/**
+ * Ongoing notification showing the running focus session.
+ * <p>
+ * The countdown is drawn by the system's chronometer, counting down to the end of the current
+ * phase, so the app never has to post an update every second. The notification is only updated
+ * at milestones: when a plant stage is reached or a phase changes. While the app isn't running,
+ * PlantReceiver updates it at each phase end, from the phase alarm.
+ */
+public class SessionNotification {
+    static final int SESSION_NOTIFICATION_ID = 2;
+    private final Context context;
+
+    public SessionNotification(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Posts or updates the session notification.
+     *
+     * @param plan            plan being run
+     * @param phase           index of the phase currently running
+     * @param stage           plant stages reached in the current phase
+     * @param remainingMillis time left in the current phase
+     */
+    public void show(SessionPlan plan, int phase, int stage, long remainingMillis) {
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        // notifications may be turned off, or the permission not granted (API 33 and higher)
+        if (!notificationManager.areNotificationsEnabled()) {
+            return;
+        }
+        String channelID = NotificationHelper.createChannel(context, R.string.session_channel_id,
+                R.string.session_channel_name, NotificationManager.IMPORTANCE_LOW);
+        Intent openApp = new Intent(context, MainActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, openApp,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        Notification sessionNotification =
+                new NotificationCompat.Builder(context, channelID)
+                        .setSmallIcon(R.drawable.leaf_icon)
+                        .setContentTitle(getPhaseTitle(plan.getPhaseType(phase)))
+                        .setContentText(getStageText(plan, phase, stage))
+                        // the system counts down to this time, without any work from the app
+                        .setWhen(System.currentTimeMillis() + remainingMillis)
+                        .setShowWhen(true)
+                        .setUsesChronometer(true)
+                        .setChronometerCountDown(true)
+                        .setOngoing(true)
+                        .setOnlyAlertOnce(true)
+                        .setSilent(true)
+                        .setPriority(NotificationCompat.PRIORITY_LOW)
+                        .setCategory(NotificationCompat.CATEGORY_PROGRESS)
+                        .setColor(ContextCompat.getColor(context, R.color.light_green))
+                        .setContentIntent(contentIntent)
+                        .build();
+        try {
+            notificationManager.notify(SESSION_NOTIFICATION_ID, sessionNotification);
+        } catch (SecurityException e) {
+            // permission was revoked after the check above, the session carries on without it
+        }
+    }
+
+    /**
+     * Removes the session notification, once the session has finished.
+     */
+    public void cancel() {
+        NotificationManagerCompat.from(context).cancel(SESSION_NOTIFICATION_ID);
+    }
+
+    private String getPhaseTitle(SessionPlan.PhaseType type) {
+        switch (type) {
+            case BREAK:
+                return context.getString(R.string.session_break);
+            case LONG_BREAK:
+                return context.getString(R.string.session_long_break);
+            default:
+                return context.getString(R.string.session_focusing);
+        }
+    }
+
+    private String getStageText(SessionPlan plan, int phase, int stage) {
+        int stageCount = plan.getStageCount(phase);
+        if (stageCount == 0) {
+            return context.getString(R.string.session_resting);
+        }
+        return context.getString(R.string.session_stage, stage, stageCount);
+    }
+}
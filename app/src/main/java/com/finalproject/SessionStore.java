@@ -0,0 +1,319 @@
+package com.finalproject;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.finalproject.focus.SessionAnchor;
+import com.finalproject.focus.SessionPlan;
+import com.finalproject.focus.SessionRecord;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Persists the running focus session, so it survives the app being backgrounded or killed.
+ * <p>
+ * When a session starts, its anchor (start time, plan and claimed milestones) is written to the
+ * FocusSession shared preferences, and one alarm at a time is scheduled, for the end of the
+ * current phase.
+ * The anchor has a file of its own because it's left out of backups: restored on another device
+ * or later on, it would bring back a session whose focus time is already in the restored
+ * history.
+ * No per-second work is needed while the app isn't visible: the alarm wakes PlantReceiver,
+ * which records the result and brings the notification up to date, even if the process was
+ * killed in the meantime.
+ * <p>
+ * Focus time is recorded by claiming milestones on the stored anchor, then adding the claimed
+ * time to FocusStats and SessionHistory, so a phase is counted once whether the app or the alarm
+ * sees it finish first.
+ */
+public class SessionStore {
+    public static final String ACTION_SESSION_ALARM = "com.finalproject.SESSION_ALARM";
+    static final String PREFS_NAME = "FocusSession";
+    private static final int ALARM_REQUEST = 2;
+    // drift allowed between the wall and monotonic clocks without a reboot, when the boot
+    // count isn't known
+    private static final long BOOT_TOLERANCE_MILLIS = 10_000;
+    private static final Object LOCK = new Object();
+    // starts, loads and records sessions for the app, off the main thread
+    private static final ExecutorService RECORDER = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "session-store"));
+    private final Context context;
+    // the anchor is committed synchronously, so it's kept outside the asynchronous SettingsStore
+    private final SharedPreferences prefs;
+
+    public SessionStore(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Stores the anchor of a newly started session, and schedules its first phase's alarm, in the
+     * background. The caller keeps the anchor in memory; phases are recorded on the same thread,
+     * so they always see it stored.
+     *
+     * @param anchor anchor of the session that has just started
+     */
+    public void start(SessionAnchor anchor) {
+        RECORDER.execute(() -> {
+            synchronized (LOCK) {
+                SharedPreferences.Editor editor = prefs.edit();
+                putAnchor(editor, anchor);
+                editor.commit();
+            }
+            scheduleAlarm(anchor.getPhaseEndElapsedMillisAt(anchor.getStartElapsedMillis()));
+        });
+    }
+
+    /**
+     * Loads the running session's anchor in the background, as load does.
+     *
+     * @param loaded called on the main thread with the anchor, or null if there isn't one
+     */
+    public void loadAsync(Consumer<SessionAnchor> loaded) {
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        RECORDER.execute(() -> {
+            SessionAnchor anchor = load();
+            mainHandler.post(() -> loaded.accept(anchor));
+        });
+    }
+
+    /**
+     * Loads the running session's anchor. If the device has rebooted since the session started,
+     * the anchor is rebased using wall-clock time, and the alarm (cleared by the reboot) is
+     * scheduled again. A reboot is told by the boot count stored with the anchor, or where
+     * there is none, by the offset between the wall and monotonic clocks having moved.
+     *
+     * @return anchor of the running session, or null if there isn't one
+     */
+    @Nullable
+    public SessionAnchor load() {
+        synchronized (LOCK) {
+            migrateAnchor();
+            String plan = prefs.getString("session_plan", null);
+            if (plan == null) {
+                return null;
+            }
+            SessionAnchor anchor = new SessionAnchor(
+                    prefs.getLong("session_start_elapsed", 0),
+                    prefs.getLong("session_start_wall", 0),
+                    SessionPlan.decode(plan),
+                    prefs.getInt("session_claimed", 0));
+            long now = SystemClock.elapsedRealtime();
+            long wallNow = System.currentTimeMillis();
+            if (isFromEarlierBoot(anchor, prefs.getInt("session_boot", -1), now, wallNow)) {
+                anchor = anchor.rebasedAt(now, wallNow);
+                SharedPreferences.Editor editor = prefs.edit();
+                putAnchor(editor, anchor);
+                editor.commit();
+                scheduleAlarm(anchor.getPhaseEndElapsedMillisAt(now));
+            }
+            return anchor;
+        }
+    }
+
+    /**
+     * Records every focus phase that has finished but hasn't been recorded yet, adding it to
+     * today's stats. Once the whole plan has run, the anchor is removed and the alarm cancelled.
+     * Called both from the app and from the phase alarm; each phase is only counted once.
+     *
+     * @return number of focus sessions recorded by this call
+     */
+    @WorkerThread
+    public int recordFinishedFocus() {
+        synchronized (LOCK) {
+            SessionAnchor anchor = load();
+            if (anchor == null) {
+                return 0;
+            }
+            long now = SystemClock.elapsedRealtime();
+            // one record per day, so focus time either side of midnight lands on the right day
+            List<SessionRecord> records =
+                    anchor.unclaimedFocusRecordsAt(now, DayClock.get(context).getDays());
+            int sessions = anchor.unclaimedFocusPhasesAt(now);
+            boolean complete = anchor.isCompleteAt(now);
+            if (sessions == 0 && !complete) {
+                return 0;
+            }
+            // the phases are claimed before they're counted, so they're never counted twice
+            SharedPreferences.Editor editor = prefs.edit();
+            if (complete) {
+                removeAnchor(editor);
+            } else {
+                putAnchor(editor, anchor.claimedAt(now));
+            }
+            editor.commit();
+            if (complete) {
+                cancelAlarm();
+            }
+            // counted straight away, then written in the background, batched with any others
+            FocusStats focusStats = FocusStats.get(context);
+            SessionHistory history = SessionHistory.get(context);
+            for (SessionRecord record : records) {
+                focusStats.add(record);
+                history.record(record);
+            }
+            return sessions;
+        }
+    }
+
+    /**
+     * Schedules the alarm for the end of the phase running now, once the alarm for the phase
+     * before has gone off.
+     *
+     * @return anchor of the running session, or null if it has finished and been recorded
+     */
+    @WorkerThread
+    @Nullable
+    public SessionAnchor scheduleNextAlarm() {
+        synchronized (LOCK) {
+            SessionAnchor anchor = load();
+            if (anchor != null) {
+                scheduleAlarm(anchor.getPhaseEndElapsedMillisAt(SystemClock.elapsedRealtime()));
+            }
+            return anchor;
+        }
+    }
+
+    /**
+     * Records finished focus phases in the background, as recordFinishedFocus does. The anchor
+     * is committed synchronously and the stats may wait for a write, so neither is done on the
+     * main thread.
+     *
+     * @param done called on the main thread once the phases are recorded
+     */
+    public void recordFinishedFocusAsync(Runnable done) {
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        RECORDER.execute(() -> {
+            recordFinishedFocus();
+            mainHandler.post(done);
+        });
+    }
+
+    /**
+     * Blocks until every session started, loaded or recorded so far in the background is done.
+     */
+    @WorkerThread
+    public void flush() {
+        try {
+            RECORDER.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Moves an anchor stored in FocusData, where it was kept before it had a file of its own.
+     * Called holding LOCK.
+     */
+    private void migrateAnchor() {
+        SharedPreferences legacy = context.getSharedPreferences(SettingsStore.PREFS_NAME,
+                Context.MODE_PRIVATE);
+        if (!legacy.contains("session_plan")) {
+            return;
+        }
+        if (!prefs.contains("session_plan")) {
+            SharedPreferences.Editor editor = prefs.edit();
+            putAnchor(editor, new SessionAnchor(
+                    legacy.getLong("session_start_elapsed", 0),
+                    legacy.getLong("session_start_wall", 0),
+                    SessionPlan.decode(legacy.getString("session_plan", null)),
+                    legacy.getInt("session_claimed", 0)));
+            // the boot it was stored in isn't known, so the clocks' offset is compared instead
+            editor.remove("session_boot");
+            editor.commit();
+        }
+        SharedPreferences.Editor legacyEditor = legacy.edit();
+        removeAnchor(legacyEditor);
+        legacyEditor.commit();
+    }
+
+    /**
+     * @param anchor     stored anchor
+     * @param storedBoot boot count stored with it, or -1 if there is none
+     * @return true if the anchor's monotonic times were taken before the last reboot
+     */
+    private boolean isFromEarlierBoot(SessionAnchor anchor, int storedBoot, long now,
+                                      long wallNow) {
+        int boot = currentBootCount();
+        if (storedBoot >= 0 && boot >= 0) {
+            return storedBoot != boot;
+        }
+        if (anchor.getStartElapsedMillis() > now) {
+            return true;
+        }
+        // the monotonic clock restarts at a reboot, so the wall time it starts from moves on
+        long storedBootWall = anchor.getStartWallMillis() - anchor.getStartElapsedMillis();
+        return Math.abs(wallNow - now - storedBootWall) > BOOT_TOLERANCE_MILLIS;
+    }
+
+    /**
+     * @return number of times the device has booted, or -1 if it isn't known
+     */
+    private int currentBootCount() {
+        return android.provider.Settings.Global.getInt(context.getContentResolver(),
+                android.provider.Settings.Global.BOOT_COUNT, -1);
+    }
+
+    private void putAnchor(SharedPreferences.Editor editor, SessionAnchor anchor) {
+        editor.putInt("session_boot", currentBootCount());
+        editor.putString("session_plan", anchor.getPlan().encode());
+        editor.putLong("session_start_elapsed", anchor.getStartElapsedMillis());
+        editor.putLong("session_start_wall", anchor.getStartWallMillis());
+        editor.putInt("session_claimed", anchor.getClaimedMilestones());
+    }
+
+    private void removeAnchor(SharedPreferences.Editor editor) {
+        editor.remove("session_boot");
+        editor.remove("session_plan");
+        editor.remove("session_start_elapsed");
+        editor.remove("session_start_wall");
+        editor.remove("session_claimed");
+    }
+
+    /**
+     * Schedules the session's single wakeup, replacing any before it. Exact alarms are used
+     * where the app is allowed to set them, otherwise the system may deliver the alarm a little
+     * late.
+     *
+     * @param phaseEndElapsedMillis elapsedRealtime at which the current phase ends
+     */
+    private void scheduleAlarm(long phaseEndElapsedMillis) {
+        AlarmManager alarmManager = context.getSystemService(AlarmManager.class);
+        PendingIntent alarmIntent = getAlarmIntent();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                && !alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
+                    phaseEndElapsedMillis, alarmIntent);
+        } else {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
+                    phaseEndElapsedMillis, alarmIntent);
+        }
+    }
+
+    private void cancelAlarm() {
+        context.getSystemService(AlarmManager.class).cancel(getAlarmIntent());
+    }
+
+    private PendingIntent getAlarmIntent() {
+        Intent intent = new Intent(context, PlantReceiver.class);
+        intent.setAction(ACTION_SESSION_ALARM);
+        return PendingIntent.getBroadcast(context, ALARM_REQUEST, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
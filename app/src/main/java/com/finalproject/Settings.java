@@ -0,0 +1,63 @@
+package com.finalproject;
+
+import com.finalproject.focus.StatCounters;
+
+/**
+ * Immutable snapshot of the app's stored settings and stats, read from SettingsStore.
+ * Changes are made by building a new snapshot with one of the with methods.
+ */
+public final class Settings {
+    public static final Settings DEFAULTS = new Settings(true, "", "", StatCounters.Counts.NONE);
+
+    private final boolean firstOpened;
+    private final String quote;
+    private final String author;
+    private final StatCounters.Counts focusCounts;
+
+    Settings(boolean firstOpened, String quote, String author, StatCounters.Counts focusCounts) {
+        this.firstOpened = firstOpened;
+        this.quote = quote;
+        this.author = author;
+        this.focusCounts = focusCounts;
+    }
+
+    /**
+     * @return true until the rules have been shown once
+     */
+    public boolean isFirstOpened() {
+        return firstOpened;
+    }
+
+    /**
+     * @return the last quote fetched, or an empty string
+     */
+    public String getQuote() {
+        return quote;
+    }
+
+    /**
+     * @return author of the last quote fetched, or an empty string
+     */
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * @return today's focus counters, as last written by FocusStats
+     */
+    public StatCounters.Counts getFocusCounts() {
+        return focusCounts;
+    }
+
+    public Settings withFirstOpened(boolean firstOpened) {
+        return new Settings(firstOpened, quote, author, focusCounts);
+    }
+
+    public Settings withQuote(String quote, String author) {
+        return new Settings(firstOpened, quote, author, focusCounts);
+    }
+
+    public Settings withFocusCounts(StatCounters.Counts focusCounts) {
+        return new Settings(firstOpened, quote, author, focusCounts);
+    }
+}
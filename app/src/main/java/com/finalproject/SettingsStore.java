@@ -0,0 +1,219 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.StatCounters;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+/**
+ * App-scoped, typed store for the settings and stats kept in the FocusData shared preferences.
+ * <p>
+ * The stored values are loaded once, on a background thread, into an immutable Settings
+ * snapshot. Reads return the current snapshot without locking, so they're safe on the UI
+ * thread. Changes are applied to the snapshot and written on the same background thread, one
+ * after another, then published through getSettings().
+ */
+public class SettingsStore {
+    static final String PREFS_NAME = "FocusData";
+    // stored_day holds no day until stats have been stored
+    private static final long NO_DAY = Long.MIN_VALUE;
+
+    private final Context context;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "settings"));
+    private final Future<Settings> loaded;
+    private final MutableLiveData<Settings> _settings = new MutableLiveData<>();
+    // replaced only on the io thread, read from any thread
+    private volatile Settings snapshot;
+
+    SettingsStore(Context context) {
+        this.context = context.getApplicationContext();
+        loaded = io.submit(this::load);
+    }
+
+    /**
+     * Getter for the app's settings store.
+     *
+     * @param context any context
+     * @return the settings store owned by FocusApplication
+     */
+    public static SettingsStore get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getSettingsStore();
+    }
+
+    /**
+     * Reads the current settings without waiting.
+     *
+     * @return the current snapshot, or null if the settings haven't finished loading
+     */
+    @Nullable
+    public Settings peek() {
+        return snapshot;
+    }
+
+    /**
+     * Getter for _settings
+     *
+     * @return _settings, set once loaded and again after every change
+     */
+    public LiveData<Settings> getSettings() {
+        return _settings;
+    }
+
+    /**
+     * Waits for the settings to load.
+     *
+     * @return settings exactly as they were loaded, before any changes made since
+     */
+    @WorkerThread
+    public Settings awaitLoaded() {
+        return waitFor(loaded);
+    }
+
+    /**
+     * Changes the settings in the background. Changes are applied in the order they're made,
+     * each to the result of the one before, so none are lost.
+     *
+     * @param change builds the new settings from the current ones
+     */
+    public void update(UnaryOperator<Settings> change) {
+        io.execute(() -> apply(change));
+    }
+
+    /**
+     * Changes the settings, and waits until they've been committed to storage.
+     *
+     * @param change builds the new settings from the current ones
+     */
+    @WorkerThread
+    public void updateAndWait(UnaryOperator<Settings> change) {
+        waitFor(io.submit(() -> apply(change)));
+    }
+
+    private static <T> T waitFor(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private SharedPreferences getSharedPreferences() {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Reads every stored value into the first snapshot, on the io thread.
+     */
+    private Settings load() {
+        SharedPreferences prefs = getSharedPreferences();
+        Settings settings = new Settings(
+                prefs.getBoolean("first_opened", true),
+                prefs.getString("quote", ""),
+                prefs.getString("author", ""),
+                readFocusCounts(prefs));
+        snapshot = settings;
+        _settings.postValue(settings);
+        return settings;
+    }
+
+    /**
+     * Applies a change to the snapshot, and commits whatever changed, on the io thread.
+     */
+    private Settings apply(UnaryOperator<Settings> change) {
+        Settings before = snapshot;
+        Settings after = change.apply(before);
+        if (after == before) {
+            return after;
+        }
+        SharedPreferences.Editor editor = getSharedPreferences().edit();
+        if (after.isFirstOpened() != before.isFirstOpened()) {
+            editor.putBoolean("first_opened", after.isFirstOpened());
+        }
+        if (!after.getQuote().equals(before.getQuote())
+                || !after.getAuthor().equals(before.getAuthor())) {
+            editor.putString("quote", after.getQuote());
+            editor.putString("author", after.getAuthor());
+        }
+        if (after.getFocusCounts() != before.getFocusCounts()) {
+            putFocusCounts(editor, after.getFocusCounts());
+        }
+        editor.commit();
+        snapshot = after;
+        _settings.postValue(after);
+        return after;
+    }
+
+    /**
+     * Reads the stored focus counters. Stats stored by earlier versions, as whole minutes with
+     * a formatted date, are read as well.
+     */
+    private static StatCounters.Counts readFocusCounts(SharedPreferences prefs) {
+        String focusTime = prefs.getString("updated_focus_time", "");
+        String focusSessions = prefs.getString("updated_focus_sessions", "");
+        try {
+            long storedDay = prefs.getLong("stored_day", NO_DAY);
+            if (storedDay == NO_DAY) {
+                storedDay = parseStoredDate(prefs.getString("stored_date", ""));
+            }
+            if (focusSessions.isEmpty()) {
+                return StatCounters.Counts.NONE;
+            }
+            long minutesAsMillis = focusTime.isEmpty() ? 0 : Integer.parseInt(focusTime) * 60_000L;
+            return new StatCounters.Counts(storedDay,
+                    prefs.getLong("focus_millis", minutesAsMillis),
+                    Integer.parseInt(focusSessions),
+                    prefs.getLong("stats_sequence", 0));
+        } catch (IllegalArgumentException e) {
+            // unreadable stats start again from zero
+            return StatCounters.Counts.NONE;
+        }
+    }
+
+    /**
+     * Stores the focus counters. Minutes and sessions are still stored as strings, as earlier
+     * versions read them.
+     */
+    private static void putFocusCounts(SharedPreferences.Editor editor,
+                                       StatCounters.Counts counts) {
+        long day = counts.getEpochDay();
+        long focusMillis = counts.getFocusMillis(day);
+        editor.putLong("stored_day", day)
+                .remove("stored_date")
+                .putLong("focus_millis", focusMillis)
+                .putString("updated_focus_time", String.valueOf(focusMillis / 60_000))
+                .putString("updated_focus_sessions", String.valueOf(counts.getFocusPhases(day)))
+                .putLong("stats_sequence", counts.getSequence());
+    }
+
+    /**
+     * Parses a date stored by earlier versions, written as JSON-quoted dd-MM-yyyy.
+     *
+     * @param storedDate stored date string
+     * @return epoch day of the stored date
+     * @throws IllegalArgumentException if the date can't be read
+     */
+    static long parseStoredDate(String storedDate) {
+        String[] parts = storedDate.replace("\\", "").replace("\"", "").split("-");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("invalid stored date: " + storedDate);
+        }
+        return EpochDays.ofDate(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[0]));
+    }
+}
@@ -0,0 +1,226 @@
+package com.finalproject;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.finalproject.focus.SongIndex;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * App-scoped, paged catalog of the songs listed in songs.json.
+ * <p>
+ * The catalog is streamed with a SongCatalogReader, PAGE_SIZE songs at a time, on a background
+ * thread: the first page when the app starts, and each later one when loadMore is called, as
+ * the list nears the end of what's loaded. The time to the first songs, and the memory used,
+ * depend on how far the list has been scrolled, not on the size of the catalog. Pages are only
+ * read once.
+ * <p>
+ * Each entry's image and audio are resolved to resource IDs as it's read, through the
+ * ResourceTable generated from songs.json at build time, so the music screen only binds views,
+ * and playing a song needs no lookups. The songs loaded so far are published through
+ * getSongs(), as an unmodifiable list of immutable SongOptions. Songs are only ever appended,
+ * so each list published starts with the one before it, and is a view over an array that's
+ * grown as pages arrive rather than a copy of every song loaded.
+ * <p>
+ * Meanwhile, on a thread of its own, the whole catalog is read once more, keeping only each
+ * song's name and genre, into a SongIndex published through getIndex(), so the music screen can
+ * search songs that haven't been loaded yet. A search that finds them calls loadThrough. Pages
+ * never wait for the index, however large the catalog.
+ */
+public class SongCatalog {
+    static final int PAGE_SIZE = 50;
+    private static final String ASSET = "songs.json";
+
+    private final Context context;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "songs"));
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "songs-index"));
+    private final MutableLiveData<List<SongOption>> _songs = new MutableLiveData<>();
+    // true while a page is queued or being read
+    private final AtomicBoolean loading = new AtomicBoolean(true);
+    // highest song ID asked for by loadThrough
+    private final AtomicInteger wanted = new AtomicInteger(-1);
+    private final MutableLiveData<SongIndex> _index = new MutableLiveData<>();
+    // only used on the io thread; published views only read below the count they were given
+    private SongOption[] loaded = new SongOption[PAGE_SIZE];
+    private int loadedCount;
+    private SongCatalogReader reader;
+    private boolean finished;
+
+    SongCatalog(Context context) {
+        this.context = context.getApplicationContext();
+        io.execute(this::loadPage);
+        indexer.execute(this::buildIndex);
+    }
+
+    /**
+     * Getter for the app's song catalog.
+     *
+     * @param context any context
+     * @return the song catalog owned by FocusApplication
+     */
+    public static SongCatalog get(Context context) {
+        return ((FocusApplication) context.getApplicationContext()).getSongCatalog();
+    }
+
+    /**
+     * Getter for _songs
+     *
+     * @return _songs, the songs loaded so far, set again after each page
+     */
+    public LiveData<List<SongOption>> getSongs() {
+        return _songs;
+    }
+
+    /**
+     * Getter for _index
+     *
+     * @return _index, the search index over the whole catalog, or no value until it's built
+     */
+    public LiveData<SongIndex> getIndex() {
+        return _index;
+    }
+
+    /**
+     * Reads the next page in the background, unless one is already being read or the whole
+     * catalog has been.
+     */
+    public void loadMore() {
+        if (loading.compareAndSet(false, true)) {
+            io.execute(this::loadPage);
+        }
+    }
+
+    /**
+     * Reads pages in the background until the song with the given ID is loaded, say because a
+     * search found it. Asking again for a song already asked for does nothing.
+     *
+     * @param id ID of a song in the index
+     */
+    public void loadThrough(int id) {
+        if (wanted.getAndAccumulate(id, Math::max) < id) {
+            io.execute(this::loadWanted);
+        }
+    }
+
+    /**
+     * Reads one page, then publishes every song loaded so far, on the io thread.
+     */
+    @WorkerThread
+    private void loadPage() {
+        readPage();
+        publish();
+        loading.set(false);
+    }
+
+    /**
+     * Reads pages until the songs asked for by loadThrough are loaded, then publishes every song
+     * loaded so far, on the io thread.
+     */
+    @WorkerThread
+    private void loadWanted() {
+        int size = loadedCount;
+        while (!finished && loadedCount <= wanted.get()) {
+            readPage();
+        }
+        if (loadedCount > size) {
+            publish();
+        }
+    }
+
+    /**
+     * Publishes the songs loaded so far, as a view of the loaded array. Later pages are written
+     * past its end, or into a larger copy, so the view never changes.
+     */
+    @WorkerThread
+    private void publish() {
+        _songs.postValue(Collections.unmodifiableList(
+                Arrays.asList(loaded).subList(0, loadedCount)));
+    }
+
+    /**
+     * Reads and resolves one page, on the io thread.
+     */
+    @WorkerThread
+    private void readPage() {
+        if (finished) {
+            return;
+        }
+        try {
+            if (reader == null) {
+                reader = new SongCatalogReader(new InputStreamReader(
+                        context.getAssets().open(ASSET), StandardCharsets.UTF_8));
+            }
+            List<SongCatalogReader.Entry> page = reader.next(PAGE_SIZE);
+            if (loadedCount + page.size() > loaded.length) {
+                loaded = Arrays.copyOf(loaded, Math.max(loaded.length * 2,
+                        loadedCount + page.size()));
+            }
+            for (SongCatalogReader.Entry entry : page) {
+                // every name in songs.json was checked against the resources by the build
+                loaded[loadedCount] = new SongOption(loadedCount, entry.songName, entry.genre,
+                        entry.song, ResourceTable.drawable(entry.image),
+                        ResourceTable.raw(entry.song));
+                loadedCount++;
+            }
+            if (page.size() < PAGE_SIZE) {
+                finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            // the songs read before the error are still shown
+            Log.e("error", "Could not read " + ASSET, e);
+            finish();
+        }
+    }
+
+    /**
+     * Reads the names and genres of the whole catalog into a SongIndex, with a reader of its own,
+     * then publishes it, on the indexer thread. IDs are catalog positions, as in readPage.
+     */
+    @WorkerThread
+    private void buildIndex() {
+        SongIndex.Builder builder = new SongIndex.Builder();
+        try (SongCatalogReader indexReader = new SongCatalogReader(new InputStreamReader(
+                context.getAssets().open(ASSET), StandardCharsets.UTF_8))) {
+            int id = 0;
+            List<SongCatalogReader.Entry> page;
+            do {
+                page = indexReader.next(PAGE_SIZE);
+                for (SongCatalogReader.Entry entry : page) {
+                    builder.add(id++, entry.songName, entry.genre);
+                }
+            } while (page.size() == PAGE_SIZE);
+        } catch (IOException e) {
+            // the songs read before the error can still be found
+            Log.e("error", "Could not index " + ASSET, e);
+        }
+        _index.postValue(builder.build());
+    }
+
+    private void finish() {
+        finished = true;
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                Log.e("error", "Could not close " + ASSET, e);
+            }
+            reader = null;
+        }
+    }
+}
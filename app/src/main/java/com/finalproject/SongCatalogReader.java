@@ -0,0 +1,114 @@
+package com.finalproject;
+
+import androidx.annotation.WorkerThread;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the entries of a song catalog, a JSON array of objects in the form of songs.json,
+ * a page at a time.
+ * <p>
+ * Only the entries of the page being read are held; the rest of the catalog is still unread in
+ * the stream, so reading the first page costs the same however long the catalog is. Unknown
+ * fields are skipped, and missing ones are read as empty.
+ */
+class SongCatalogReader implements Closeable {
+
+    /**
+     * One entry of the catalog, as written.
+     */
+    static final class Entry {
+        final String songName;
+        final String genre;
+        final String image;
+        final String song;
+
+        Entry(String songName, String genre, String image, String song) {
+            this.songName = songName;
+            this.genre = genre;
+            this.image = image;
+            this.song = song;
+        }
+    }
+
+    private final JsonReader json;
+    private boolean started;
+
+    /**
+     * @param reader catalog to read; closed by close
+     */
+    SongCatalogReader(Reader reader) {
+        json = new JsonReader(reader);
+    }
+
+    /**
+     * Reads the next page of entries.
+     *
+     * @param max most entries to read
+     * @return the entries read, fewer than max only once the end of the catalog is reached
+     * @throws IOException if the catalog can't be read or isn't a JSON array of objects
+     */
+    @WorkerThread
+    List<Entry> next(int max) throws IOException {
+        List<Entry> page = new ArrayList<>(max);
+        try {
+            if (!started) {
+                json.beginArray();
+                started = true;
+            }
+            while (page.size() < max && json.hasNext()) {
+                page.add(readEntry());
+            }
+        } catch (IllegalStateException e) {
+            // thrown by JsonReader for a value of the wrong type
+            throw new IOException("not a song catalog", e);
+        }
+        return page;
+    }
+
+    private Entry readEntry() throws IOException {
+        String songName = "";
+        String genre = "";
+        String image = "";
+        String song = "";
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "songName":
+                    songName = json.nextString();
+                    break;
+                case "genre":
+                    genre = json.nextString();
+                    break;
+                case "image":
+                    image = json.nextString();
+                    break;
+                case "song":
+                    song = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+        return new Entry(songName, genre, image, song);
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
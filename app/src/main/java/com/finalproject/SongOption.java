@@ -1,19 +1,51 @@
 package com.finalproject;
 
+import androidx.annotation.DrawableRes;
+import androidx.annotation.RawRes;
+
 /**
- * Song Option class, is used to help store and parse data stored in songs.json.
+ * Immutable song in the catalog, as listed in songs.json, with its album image and audio
+ * already resolved to resource IDs.
  */
-public class SongOption {
-    protected String song;
-    protected String genre;
-    protected String image;
-    protected String songName;
+public final class SongOption {
+    private final int id;
+    private final String songName;
+    private final String genre;
+    private final String song;
+    private final int imageId;
+    private final int songId;
 
-    SongOption(String songName, String genre, String image, String song) {
+    /**
+     * @param id       position of the song in the catalog, which never changes
+     * @param songName name shown for the song
+     * @param genre    genre shown for the song
+     * @param song     name of the song's raw resource, also shown while it plays
+     * @param imageId  album image
+     * @param songId   audio
+     */
+    SongOption(int id, String songName, String genre, String song, @DrawableRes int imageId,
+               @RawRes int songId) {
+        this.id = id;
         this.songName = songName;
         this.genre = genre;
-        this.image = image;
         this.song = song;
+        this.imageId = imageId;
+        this.songId = songId;
+    }
+
+    /**
+     * @return position of the song in the catalog, used as its stable ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getSongName() {
+        return songName;
+    }
+
+    public String getGenre() {
+        return genre;
     }
 
     /**
@@ -25,5 +57,33 @@ public class SongOption {
     public String getSong() {
         return song;
     }
-}
 
+    @DrawableRes
+    public int getImageId() {
+        return imageId;
+    }
+
+    @RawRes
+    public int getSongId() {
+        return songId;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SongOption)) {
+            return false;
+        }
+        SongOption option = (SongOption) other;
+        return id == option.id && imageId == option.imageId && songId == option.songId
+                && songName.equals(option.songName) && genre.equals(option.genre)
+                && song.equals(option.song);
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+}
@@ -3,6 +3,8 @@ package com.finalproject.fragments;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
@@ -14,21 +16,38 @@ import android.view.ViewGroup;
 
 import com.finalproject.AudioService;
 import com.finalproject.MusicAdapter;
+import com.finalproject.SongCatalog;
 import com.finalproject.SongOption;
 import com.finalproject.databinding.FragmentMusicBinding;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.finalproject.focus.SongIndex;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
  * Starts Music Service when play-button of chosen song is clicked.
+ * <p>
+ * The list can be narrowed by typing the start of a song's name, or of any word in it, and by
+ * picking a genre chip. Each change is looked up in the catalog's SongIndex, which returns the
+ * IDs of the matching songs without going through the rest, and the matches are handed to the
+ * adapter, which diffs them against the songs shown and only updates the ones that changed.
+ * Pages loaded while the whole catalog is shown are appended without a diff.
  */
 public class MusicFragment extends Fragment {
+    private MusicAdapter musicAdapter;
+    private SongCatalog songCatalog;
+    // the songs loaded so far, and the index; null until the catalog publishes them
+    private List<SongOption> songs;
+    private SongIndex index;
+    private String query = "";
+    // null for every genre
+    private String genre;
+    // true while the adapter was last given the whole loaded catalog, so later pages are
+    // appended to it rather than diffed
+    private boolean showingAll;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -44,67 +63,118 @@ public class MusicFragment extends Fragment {
         View fragmentMusicView = binding.getRoot();
         RecyclerView recyclerView = binding.recyclerMusic;
 
-        // loads and parses songs from assets folder
-        String json = loadJSONFromAsset();
-        List<SongOption> songList = parseSongs(json);
-
+        // the catalog is read a page at a time, and each page only once
+        songCatalog = SongCatalog.get(requireContext());
+        query = "";
+        genre = null;
+        showingAll = false;
         // music adapter's interface allows click listener to be attached here
-        MusicAdapter.RecyclerViewClickListener songListener = (view, position) -> {
-            // obtain song details
-            String song = songList.get(position).getSong();
-            int songID = requireContext().getResources().getIdentifier(song,
-                    "raw", requireContext().getPackageName());
-
-            // intent is prepared for audio service
-            Intent intent = new Intent(getContext(), AudioService.class);
-            intent.putExtra("song_id", songID);
-            intent.putExtra("song_name", song);
-
-            // the appropriate service is started based on API version
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                requireContext().startForegroundService(intent);
-            } else {
-                requireContext().startService(intent);
+        musicAdapter = new MusicAdapter(
+                (view, position) -> playSong(musicAdapter.getSong(position)),
+                songCatalog::loadMore);
+        recyclerView.setAdapter(musicAdapter);
+        songCatalog.getSongs().observe(getViewLifecycleOwner(), loaded -> {
+            songs = loaded;
+            applyFilter();
+        });
+
+        ChipGroup genreChips = binding.genreChips;
+        genreChips.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            genre = checkedIds.isEmpty()
+                    ? null : (String) group.findViewById(checkedIds.get(0)).getTag();
+            applyFilter();
+        });
+        songCatalog.getIndex().observe(getViewLifecycleOwner(), built -> {
+            index = built;
+            addGenreChips(genreChips, built.getGenres());
+            applyFilter();
+        });
+        binding.searchSongs.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
             }
-        };
 
-        MusicAdapter musicAdapter = new MusicAdapter(songList, songListener);
-        recyclerView.setAdapter(musicAdapter);
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                query = s.toString();
+                applyFilter();
+            }
+        });
         return fragmentMusicView;
     }
 
     /**
-     * Opens and parses songs.json.
+     * Adds a checkable chip for each genre, tagged with the genre's name.
      *
-     * @return a string representation of the information contained in songs.json
+     * @param genreChips group the chips are added to; only one can be checked at a time
+     * @param genres     genres in the catalog
+     */
+    private void addGenreChips(ChipGroup genreChips, List<String> genres) {
+        genreChips.removeAllViews();
+        for (String name : genres) {
+            Chip chip = new Chip(requireContext());
+            chip.setId(View.generateViewId());
+            chip.setText(name);
+            chip.setTag(name);
+            chip.setCheckable(true);
+            genreChips.addView(chip);
+        }
+    }
+
+    /**
+     * Shows the loaded songs that match the search and the chosen genre, or every loaded song
+     * if neither is set. Matches that haven't been loaded yet are asked for, and shown when
+     * their page arrives.
      */
-    private String loadJSONFromAsset() {
-        String json;
-        try {
-            InputStream is = requireContext().getApplicationContext().getAssets()
-                    .open("songs.json");
-            int size = is.available();
-            byte[] buffer = new byte[size];
-            is.read(buffer);
-            is.close();
-            json = new String(buffer, StandardCharsets.UTF_8);
-        } catch (IOException ex) {
-            ex.printStackTrace();
-            return null;
+    private void applyFilter() {
+        if (songs == null) {
+            return;
+        }
+        // before the index is built, the whole list is shown, and filtered once it is
+        if (index == null || (query.trim().isEmpty() && genre == null)) {
+            if (showingAll) {
+                musicAdapter.append(songs);
+            } else {
+                musicAdapter.submitList(songs);
+                showingAll = true;
+            }
+            return;
+        }
+        showingAll = false;
+        BitSet matches = index.query(query, genre);
+        List<SongOption> shown = new ArrayList<>(matches.cardinality());
+        // only the matching IDs are visited
+        for (int id = matches.nextSetBit(0); id >= 0 && id < songs.size();
+             id = matches.nextSetBit(id + 1)) {
+            shown.add(songs.get(id));
+        }
+        int last = matches.length() - 1;
+        if (last >= songs.size()) {
+            songCatalog.loadThrough(last);
         }
-        return json;
+        musicAdapter.submitList(shown);
     }
 
     /**
-     * Turns provided json String into a List, then returns the list.
+     * Starts the audio service playing the chosen song.
      *
-     * @param json json String formed using loadJSONFromAsset
-     * @return list with SongOption parameters.
+     * @param song song whose play button was clicked
      */
-    private List<SongOption> parseSongs(String json) {
-        Gson gson = new Gson();
-        Type dataType = new TypeToken<List<SongOption>>() {
-        }.getType();
-        return gson.fromJson(json, dataType);
+    private void playSong(SongOption song) {
+        // intent is prepared for audio service
+        Intent intent = new Intent(getContext(), AudioService.class);
+        intent.putExtra("song_id", song.getSongId());
+        intent.putExtra("song_name", song.getSong());
+
+        // the appropriate service is started based on API version
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            requireContext().startForegroundService(intent);
+        } else {
+            requireContext().startService(intent);
+        }
     }
-}
\ No newline at end of file
+}
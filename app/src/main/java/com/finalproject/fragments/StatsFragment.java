@@ -1,23 +1,59 @@
 package com.finalproject.fragments;
 
+import android.content.Context;
+import android.net.Uri;
 import android.os.Bundle;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.PopupMenu;
 import android.widget.TextView;
+import android.widget.Toast;
 
-import com.finalproject.AccessSharedPref;
+import com.finalproject.DayClock;
+import com.finalproject.FocusStats;
+import com.finalproject.HeatmapView;
+import com.finalproject.HistoryTransfer;
+import com.finalproject.R;
+import com.finalproject.SessionHistory;
 import com.finalproject.databinding.FragmentStatsBinding;
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.StatCounters;
+import com.finalproject.focus.StatsRollup;
+
+import java.util.concurrent.TimeUnit;
 
 /**
- * Accesses data updated in Receiver class and stored in shared preferences.
- * Shows today's focus session stats.
+ * Shows today's focus stats from FocusStats, along with this week's and this month's totals
+ * and the current streak, from the running totals kept by session history.
+ * <p>
+ * A heatmap of this year's focus sessions is shown below them, along with a menu to export the
+ * whole history as CSV or JSON, or import it back.
+ * <p>
+ * All are updated as each session is recorded, so opening this screen takes the same time
+ * however much history there is.
  */
 public class StatsFragment extends Fragment {
+    private TextView dailyFocusTime, dailyFocusSessions, rollupText;
+    private HeatmapView heatmapView;
+    // documents are picked through the system file picker, then streamed by HistoryTransfer
+    private final ActivityResultLauncher<String> exportCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(HistoryTransfer.Format.CSV.getMimeType()),
+            uri -> exportTo(HistoryTransfer.Format.CSV, uri));
+    private final ActivityResultLauncher<String> exportJson = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(HistoryTransfer.Format.JSON.getMimeType()),
+            uri -> exportTo(HistoryTransfer.Format.JSON, uri));
+    private final ActivityResultLauncher<String[]> importHistory = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importFrom);
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -30,26 +66,119 @@ public class StatsFragment extends Fragment {
         FragmentStatsBinding binding = FragmentStatsBinding.inflate(getLayoutInflater(), container,
                 false);
         View statsView = binding.getRoot();
-        TextView dailyFocusTime = binding.statsTextTotals;
-        TextView dailyFocusSessions = binding.plantsText;
-        // accesses shared preferences from helper class
-        AccessSharedPref sharedPref = new AccessSharedPref(requireContext());
-        // compares stored date (from shared preferences) and current date
-        // stats are updated if they match
-        if (sharedPref.compareDates()) {
-            String updatedTime = sharedPref.getFocusTime();
-            String updatedFocusSessions = sharedPref.getFocusSessions();
-            updateText(dailyFocusTime, updatedTime);
-            updateText(dailyFocusSessions, updatedFocusSessions);
-            // if it's a different day, stats are reset
-        } else {
-            String resetStats = "0";
-            updateText(dailyFocusTime, resetStats);
-            updateText(dailyFocusSessions, resetStats);
-        }
+        dailyFocusTime = binding.statsTextTotals;
+        dailyFocusSessions = binding.plantsText;
+        rollupText = binding.statsRollupText;
+        heatmapView = binding.heatmap;
+        binding.historyButton.setOnClickListener(this::showHistoryMenu);
         return statsView;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // today's counts are shown straight away, and again whenever a session is recorded
+        LiveData<StatCounters.Counts> counts = FocusStats.get(requireContext()).getCounts();
+        counts.observe(getViewLifecycleOwner(), this::showCounts);
+        // longer totals are shown once loaded from session history
+        LiveData<StatsRollup> rollup = SessionHistory.get(requireContext()).getRollup();
+        rollup.observe(getViewLifecycleOwner(), this::showRollup);
+        // only the days that changed are redrawn
+        SessionHistory.get(requireContext()).getHeatmap()
+                .observe(getViewLifecycleOwner(), heatmapView::setHeatmap);
+        // totals that roll over at midnight are shown as zero straight away
+        DayClock.get(requireContext()).getDay().observe(getViewLifecycleOwner(), day -> {
+            heatmapView.setYear(EpochDays.yearOf(day));
+            if (counts.getValue() != null) {
+                showCounts(counts.getValue());
+            }
+            if (rollup.getValue() != null) {
+                showRollup(rollup.getValue());
+            }
+        });
+    }
+
+    /**
+     * Displays today's focus time and sessions. Counts from an earlier day show zero.
+     *
+     * @param counts today's counters, from FocusStats
+     */
+    private void showCounts(StatCounters.Counts counts) {
+        long today = DayClock.get(requireContext()).today();
+        updateText(dailyFocusTime, String.valueOf(toMinutes(counts.getFocusMillis(today))));
+        updateText(dailyFocusSessions, String.valueOf(counts.getFocusPhases(today)));
+    }
+
+    /**
+     * Displays this week's and this month's totals, and the current streak. Periods that have
+     * rolled over since the last session show zero.
+     *
+     * @param rollup running totals from session history
+     */
+    private void showRollup(StatsRollup rollup) {
+        long today = DayClock.get(requireContext()).today();
+        updateText(rollupText, getString(R.string.stats_rollup,
+                toMinutes(rollup.getWeekMillis(today)), rollup.getWeekPhases(today),
+                toMinutes(rollup.getMonthMillis(today)), rollup.getMonthPhases(today),
+                rollup.getStreakDays(today)));
+    }
+
+    /**
+     * Shows the export and import options under the button.
+     *
+     * @param anchor the export / import button
+     */
+    private void showHistoryMenu(View anchor) {
+        PopupMenu menu = new PopupMenu(requireContext(), anchor);
+        menu.inflate(R.menu.history_transfer);
+        menu.setOnMenuItemClickListener(item -> {
+            int id = item.getItemId();
+            if (id == R.id.export_csv) {
+                exportCsv.launch(HistoryTransfer.Format.CSV.getFileName());
+            } else if (id == R.id.export_json) {
+                exportJson.launch(HistoryTransfer.Format.JSON.getFileName());
+            } else if (id == R.id.import_history) {
+                importHistory.launch(new String[]{ "text/*", "application/json" });
+            } else {
+                return false;
+            }
+            return true;
+        });
+        menu.show();
+    }
+
+    private void exportTo(HistoryTransfer.Format format, @Nullable Uri uri) {
+        if (uri != null) {
+            HistoryTransfer.get(requireContext()).exportAsync(format, uri, count ->
+                    showTransferResult(R.string.history_exported, count));
+        }
+    }
+
+    private void importFrom(@Nullable Uri uri) {
+        if (uri != null) {
+            HistoryTransfer.get(requireContext()).importAsync(uri, count ->
+                    showTransferResult(R.string.history_imported, count));
+        }
+    }
+
+    /**
+     * Reports how many sessions were transferred. The toast uses the application context, as
+     * the fragment may be gone by the time a long transfer finishes.
+     *
+     * @param message message for a transfer that worked
+     * @param count   sessions transferred, or -1 if it failed
+     */
+    private void showTransferResult(@StringRes int message, int count) {
+        Context context = heatmapView.getContext().getApplicationContext();
+        String text = count < 0 ? context.getString(R.string.history_transfer_failed)
+                : context.getString(message, count);
+        Toast.makeText(context, text, Toast.LENGTH_SHORT).show();
+    }
+
+    private static long toMinutes(long millis) {
+        return TimeUnit.MILLISECONDS.toMinutes(millis);
+    }
+
     /**
      * Helper function to update text for Focus Sessions and Number of Plants grown.
      *
@@ -59,4 +188,4 @@ public class StatsFragment extends Fragment {
     private void updateText(TextView textViewToUpdate, String fieldWithData) {
         textViewToUpdate.setText(fieldWithData);
     }
-}
\ No newline at end of file
+}
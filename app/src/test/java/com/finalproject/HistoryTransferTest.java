@@ -0,0 +1,120 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.finalproject.focus.DayTotal;
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.SessionCsv;
+import com.finalproject.focus.SessionRecord;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams session history out and back in, against Robolectric's SQLite.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class HistoryTransferTest {
+    private static final long FIRST_DAY = EpochDays.ofDate(2022, 1, 1);
+    // spans more than one import batch
+    private static final int SESSIONS = SessionHistory.IMPORT_BATCH * 2 + 10;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void csv_roundTripsAcrossBatches() throws IOException {
+        assertRoundTrip(HistoryTransfer.Format.CSV);
+    }
+
+    @Test
+    public void json_roundTripsAcrossBatches() throws IOException {
+        assertRoundTrip(HistoryTransfer.Format.JSON);
+    }
+
+    @Test
+    public void sameFileImportedTwice_addsNothing() throws IOException {
+        SessionHistory history = newHistory();
+        HistoryTransfer transfer = new HistoryTransfer(context, history);
+        String csv = SessionCsv.HEADER + "\n2024-05-01,1714550400000,300000,1\n";
+
+        assertEquals(1, transfer.importFrom(HistoryTransfer.Format.CSV, stream(csv)));
+        assertEquals(0, transfer.importFrom(HistoryTransfer.Format.CSV, stream(csv)));
+        long day = EpochDays.ofDate(2024, 5, 1);
+        assertEquals(1, history.queryDays(day, day).get(0).getFocusPhases());
+    }
+
+    @Test
+    public void jsonWithGenericType_isReadAsJson() throws IOException {
+        SessionHistory history = newHistory();
+        String json = "\uFEFF\n  {\"version\": 1, \"sessions\": [{\"date\": \"2024-05-01\", "
+                + "\"start_wall_millis\": 1714550400000, \"focus_millis\": 300000, "
+                + "\"focus_phases\": 1}]}";
+
+        assertEquals(1, new HistoryTransfer(context, history)
+                .importFrom("application/octet-stream", stream(json)));
+        long day = EpochDays.ofDate(2024, 5, 1);
+        assertEquals(1, history.queryDays(day, day).get(0).getFocusPhases());
+    }
+
+    @Test
+    public void csvWithJsonType_isReadAsCsv() throws IOException {
+        SessionHistory history = newHistory();
+        String csv = "\uFEFF" + SessionCsv.HEADER + "\n2024-05-01,1714550400000,300000,1\n";
+
+        assertEquals(1, new HistoryTransfer(context, history)
+                .importFrom("application/json", stream(csv)));
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidRow_failsImport() throws IOException {
+        new HistoryTransfer(context, newHistory())
+                .importFrom(HistoryTransfer.Format.CSV, stream("2024-05-01,oops\n"));
+    }
+
+    private void assertRoundTrip(HistoryTransfer.Format format) throws IOException {
+        SessionHistory history = newHistory();
+        for (int i = 0; i < SESSIONS; i++) {
+            history.record(new SessionRecord(FIRST_DAY + i / 3, 1_000L * i, 300_000, 1));
+        }
+        history.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(SESSIONS, new HistoryTransfer(context, history).export(format, out));
+
+        // imported into an empty history, as on a new device
+        context.deleteDatabase(SessionHistoryDb.DATABASE_NAME);
+        SessionHistory restored = newHistory();
+        assertEquals(SESSIONS, new HistoryTransfer(context, restored)
+                .importFrom(format, new ByteArrayInputStream(out.toByteArray())));
+
+        long lastDay = FIRST_DAY + (SESSIONS - 1) / 3;
+        List<DayTotal> days = restored.queryDays(FIRST_DAY, lastDay);
+        assertEquals(lastDay - FIRST_DAY + 1, days.size());
+        assertEquals(3, days.get(0).getFocusPhases());
+        assertEquals(3 * 300_000L, days.get(0).getFocusMillis());
+    }
+
+    private SessionHistory newHistory() {
+        return new SessionHistory(context, new SettingsStore(context));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
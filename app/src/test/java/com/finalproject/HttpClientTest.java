@@ -0,0 +1,135 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.volley.toolbox.RequestFuture;
+import com.android.volley.toolbox.StringRequest;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends requests through HttpClient to a stand-in server on localhost.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class HttpClientTest {
+    private static final String ETAG = "\"quote-1\"";
+    private static final String BODY = "[{\"q\":\"Keep going.\",\"a\":\"Anon\"}]";
+
+    private HttpServer server;
+    private HttpClient client;
+    private Context context;
+    // held closed to keep responses waiting, until a test opens it
+    private final CountDownLatch release = new CountDownLatch(1);
+    // If-None-Match header of each request the server saw, or "" if there wasn't one
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/quote", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(condition == null ? "" : condition);
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        context = ApplicationProvider.getApplicationContext();
+        File cacheDir = new File(context.getCacheDir(), "http-test");
+        // responses are delivered straight from the network threads, since nothing runs
+        // Robolectric's main looper here
+        client = new HttpClient(cacheDir, Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        client.stop();
+        server.stop(0);
+    }
+
+    @Test
+    public void secondRequest_isRevalidatedAndServedFromCache() throws Exception {
+        release.countDown();
+        assertEquals(BODY, fetch());
+        assertEquals(BODY, fetch());
+
+        assertEquals(2, conditions.size());
+        assertEquals("", conditions.get(0));
+        // the cached ETag is sent back, and the 304 is answered from the cache
+        assertEquals(ETAG, conditions.get(1));
+    }
+
+    @Test
+    public void concurrentFetches_shareOneRequest() throws Exception {
+        RateLimiter limiter = new RateLimiter(context, "test", 1, 60 * 60_000L);
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+
+        client.fetch(url(), limiter, body -> {
+            bodies.add(body);
+            done.countDown();
+        });
+        client.fetch(url(), limiter, body -> {
+            bodies.add(body);
+            done.countDown();
+        });
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, conditions.size());
+        assertEquals(2, bodies.size());
+        assertEquals(BODY, bodies.get(0));
+        assertEquals(BODY, bodies.get(1));
+
+        // the one call allowed has been made, so the next is refused without a request
+        String[] refused = {BODY};
+        client.fetch(url(), limiter, body -> refused[0] = body);
+        assertNull(refused[0]);
+        assertEquals(1, conditions.size());
+    }
+
+    private String fetch() throws Exception {
+        RequestFuture<String> future = RequestFuture.newFuture();
+        StringRequest request = new StringRequest(url(), future, future);
+        future.setRequest(request);
+        client.add(request);
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/quote";
+    }
+}
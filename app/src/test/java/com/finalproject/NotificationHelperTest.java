@@ -0,0 +1,59 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowNotificationManager;
+
+/**
+ * Creates the music and session channels, as AudioService and SessionNotification do.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NotificationHelperTest {
+    private Context context;
+    private ShadowNotificationManager notificationManager;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        notificationManager = shadowOf(context.getSystemService(NotificationManager.class));
+    }
+
+    @Test
+    public void musicChannel_isCreatedWithItsNameAndImportance() {
+        String channelID = NotificationHelper.createChannel(context, R.string.music_channel_id,
+                R.string.music_channel_name, NotificationManager.IMPORTANCE_MIN);
+
+        assertEquals(context.getString(R.string.music_channel_id), channelID);
+        NotificationChannel channel =
+                (NotificationChannel) notificationManager.getNotificationChannel(channelID);
+        assertNotNull(channel);
+        assertEquals(context.getString(R.string.music_channel_name), channel.getName().toString());
+        assertEquals(NotificationManager.IMPORTANCE_MIN, channel.getImportance());
+    }
+
+    @Test
+    public void channels_areCreatedOnceEach() {
+        for (int i = 0; i < 2; i++) {
+            NotificationHelper.createChannel(context, R.string.music_channel_id,
+                    R.string.music_channel_name, NotificationManager.IMPORTANCE_MIN);
+            NotificationHelper.createChannel(context, R.string.session_channel_id,
+                    R.string.session_channel_name, NotificationManager.IMPORTANCE_LOW);
+        }
+
+        assertEquals(2, notificationManager.getNotificationChannels().size());
+        NotificationChannel session = (NotificationChannel) notificationManager
+                .getNotificationChannel(context.getString(R.string.session_channel_id));
+        assertEquals(NotificationManager.IMPORTANCE_LOW, session.getImportance());
+    }
+}
@@ -0,0 +1,83 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.finalproject.focus.DayTotal;
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.SessionRecord;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Backs session history up in incremental chunks, then restores it into an empty history,
+ * against Robolectric's SQLite.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SessionBackupHelperTest {
+    private static final long DAY = EpochDays.ofDate(2024, 6, 3);
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void chunks_holdOnlyNewSessions_andRestoreInAnyOrder() throws IOException {
+        SessionHistory history = newHistory();
+        for (int i = 0; i < 10; i++) {
+            history.record(new SessionRecord(DAY, 1_717_400_000_000L + i * 600_000L, 300_000, 1));
+        }
+        history.flush();
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        long firstLastId = SessionBackupHelper.writeDelta(history, 0, first);
+
+        history.record(new SessionRecord(DAY + 1, 1_717_500_000_000L, 300_000, 1));
+        history.flush();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        long secondLastId = SessionBackupHelper.writeDelta(history, firstLastId, second);
+        // nothing new since the second backup
+        ByteArrayOutputStream third = new ByteArrayOutputStream();
+        assertEquals(secondLastId,
+                SessionBackupHelper.writeDelta(history, secondLastId, third));
+
+        // the second chunk holds one session, so it's a handful of bytes
+        assertTrue(second.size() < first.size());
+        assertTrue("took " + second.size() + " bytes", second.size() <= 16);
+        assertEquals(1, third.size());
+
+        // restored on a new device, newest chunk first
+        context.deleteDatabase(SessionHistoryDb.DATABASE_NAME);
+        SessionHistory restored = newHistory();
+        assertEquals(1, SessionBackupHelper.readDelta(restored,
+                new ByteArrayInputStream(second.toByteArray())));
+        assertEquals(10, SessionBackupHelper.readDelta(restored,
+                new ByteArrayInputStream(first.toByteArray())));
+        // replaying a chunk again adds nothing
+        assertEquals(0, SessionBackupHelper.readDelta(restored,
+                new ByteArrayInputStream(first.toByteArray())));
+
+        List<DayTotal> days = restored.queryDays(DAY, DAY + 1);
+        assertEquals(2, days.size());
+        assertEquals(10, days.get(0).getFocusPhases());
+        assertEquals(1, days.get(1).getFocusPhases());
+        assertEquals(11, restored.getLastRowId());
+    }
+
+    private SessionHistory newHistory() {
+        return new SessionHistory(context, new SettingsStore(context));
+    }
+}
@@ -0,0 +1,129 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.finalproject.focus.DayTotal;
+import com.finalproject.focus.EpochDays;
+import com.finalproject.focus.FocusHeatmap;
+import com.finalproject.focus.SessionRecord;
+import com.finalproject.focus.StatsRollup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+/**
+ * Runs session history against Robolectric's SQLite.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SessionHistoryTest {
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void recordedSessions_areSummedPerDay() {
+        SessionHistory history = new SessionHistory(context, new SettingsStore(context));
+        long day = EpochDays.ofDate(2024, 5, 1);
+        for (int i = 0; i < 100; i++) {
+            history.record(new SessionRecord(day + i % 3, 0, 300_000, 1));
+        }
+        history.record(new SessionRecord(day + 10, 0, 300_000, 1));
+        history.flush();
+
+        List<DayTotal> days = history.queryDays(day, day + 2);
+        assertEquals(3, days.size());
+        assertEquals(day, days.get(0).getEpochDay());
+        assertEquals(34, days.get(0).getFocusPhases());
+        assertEquals(34 * 300_000L, days.get(0).getFocusMillis());
+        assertEquals(33, days.get(2).getFocusPhases());
+        // days outside the range are left out
+        assertEquals(4, history.queryDays(day, day + 10).size());
+    }
+
+    @Test
+    public void storedFocusData_isMigratedOnce() {
+        SharedPreferences.Editor editor = context.getSharedPreferences(
+                SettingsStore.PREFS_NAME, Context.MODE_PRIVATE).edit();
+        editor.putString("stored_date", "\"07-03-2024\"");
+        editor.putString("updated_focus_time", "15");
+        editor.putString("updated_focus_sessions", "3");
+        editor.commit();
+        context.deleteDatabase(SessionHistoryDb.DATABASE_NAME);
+
+        long day = EpochDays.ofDate(2024, 3, 7);
+        List<DayTotal> days = new SessionHistory(context, new SettingsStore(context))
+                .queryDays(day, day);
+        assertEquals(1, days.size());
+        assertEquals(3, days.get(0).getFocusPhases());
+        assertEquals(15 * 60_000L, days.get(0).getFocusMillis());
+        // the database now exists, so opening it again doesn't copy the stats a second time
+        SessionHistory reopened = new SessionHistory(context, new SettingsStore(context));
+        assertEquals(3, reopened.queryDays(day, day).get(0).getFocusPhases());
+    }
+
+    @Test
+    public void rollup_isStoredWithEachBatch() {
+        SessionHistory history = new SessionHistory(context, new SettingsStore(context));
+        long day = EpochDays.ofDate(2024, 5, 29);
+        history.record(new SessionRecord(day - 1, 0, 300_000, 1));
+        history.record(new SessionRecord(day, 0, 300_000, 1));
+        history.flush();
+
+        // read straight from the database, as it would be after a restart
+        StatsRollup rollup = SessionHistoryDb.readRollup(
+                new SessionHistoryDb(context, () -> null).getReadableDatabase());
+        assertEquals(1, rollup.getDayPhases(day));
+        assertEquals(2, rollup.getWeekPhases(day));
+        assertEquals(2, rollup.getStreakDays(day));
+    }
+
+    @Test
+    public void missingRollup_isRebuiltOnOpen() {
+        SessionHistory history = new SessionHistory(context, new SettingsStore(context));
+        long day = EpochDays.ofDate(2024, 6, 3);
+        history.record(new SessionRecord(day - 1, 0, 300_000, 1));
+        history.record(new SessionRecord(day, 0, 300_000, 2));
+        history.flush();
+        // as left by an import that didn't finish
+        SessionHistoryDb.clearRollup(
+                new SessionHistoryDb(context, () -> null).getWritableDatabase());
+
+        SessionHistory reopened = new SessionHistory(context, new SettingsStore(context));
+        reopened.flush();
+        shadowOf(Looper.getMainLooper()).idle();
+        StatsRollup rollup = reopened.getRollup().getValue();
+        assertEquals(2, rollup.getDayPhases(day));
+        assertEquals(2, rollup.getStreakDays(day));
+    }
+
+    @Test
+    public void heatmap_isUpdatedForRecordedDays() {
+        SessionHistory history = new SessionHistory(context, new SettingsStore(context));
+        long day = EpochDays.ofDate(2024, 8, 12);
+        for (int i = 0; i < 4; i++) {
+            history.record(new SessionRecord(day, 0, 300_000, 1));
+        }
+        history.record(new SessionRecord(day + 1, 0, 300_000, 1));
+        history.flush();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        FocusHeatmap heatmap = history.getHeatmap().getValue();
+        assertEquals(FocusHeatmap.MAX_LEVEL, heatmap.getLevel(day));
+        assertEquals(1, heatmap.getLevel(day + 1));
+        assertEquals(0, heatmap.getLevel(day + 2));
+    }
+}
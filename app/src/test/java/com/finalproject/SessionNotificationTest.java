@@ -0,0 +1,94 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.finalproject.focus.SessionPlan;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowNotificationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts the session notification to Robolectric's notification manager.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SessionNotificationTest {
+    private Context context;
+    private ShadowNotificationManager notificationManager;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        notificationManager = shadowOf(context.getSystemService(NotificationManager.class));
+    }
+
+    @Test
+    public void show_countsDownToPhaseEnd() {
+        long remaining = TimeUnit.MINUTES.toMillis(3);
+        long before = System.currentTimeMillis();
+        new SessionNotification(context).show(SessionPlan.CLASSIC, 0, 1, remaining);
+        long after = System.currentTimeMillis();
+
+        Notification notification =
+                notificationManager.getNotification(SessionNotification.SESSION_NOTIFICATION_ID);
+        assertNotNull(notification);
+        // the system draws the countdown, to the end of the phase
+        assertTrue(notification.when >= before + remaining);
+        assertTrue(notification.when <= after + remaining);
+        assertTrue(notification.extras.getBoolean(Notification.EXTRA_SHOW_CHRONOMETER));
+        assertTrue(notification.extras.getBoolean(Notification.EXTRA_CHRONOMETER_COUNT_DOWN));
+        assertTrue((notification.flags & Notification.FLAG_ONGOING_EVENT) != 0);
+        assertEquals(context.getString(R.string.session_focusing),
+                notification.extras.getCharSequence(Notification.EXTRA_TITLE).toString());
+        assertEquals(context.getString(R.string.session_stage, 1, 3),
+                notification.extras.getCharSequence(Notification.EXTRA_TEXT).toString());
+        assertEquals(context.getString(R.string.session_channel_id), notification.getChannelId());
+    }
+
+    @Test
+    public void show_updatesTheOneNotification() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(60_000)
+                .shortBreak(10_000)
+                .build();
+        SessionNotification sessionNotification = new SessionNotification(context);
+        sessionNotification.show(plan, 0, 0, 60_000);
+        sessionNotification.show(plan, 1, 0, 10_000);
+
+        assertEquals(1, notificationManager.size());
+        Notification notification =
+                notificationManager.getNotification(SessionNotification.SESSION_NOTIFICATION_ID);
+        assertEquals(context.getString(R.string.session_break),
+                notification.extras.getCharSequence(Notification.EXTRA_TITLE).toString());
+        assertEquals(context.getString(R.string.session_resting),
+                notification.extras.getCharSequence(Notification.EXTRA_TEXT).toString());
+    }
+
+    @Test
+    public void cancel_removesNotification() {
+        SessionNotification sessionNotification = new SessionNotification(context);
+        sessionNotification.show(SessionPlan.CLASSIC, 0, 0, 60_000);
+        sessionNotification.cancel();
+
+        assertEquals(0, notificationManager.size());
+    }
+
+    @Test
+    public void notificationsOff_postsNothing() {
+        notificationManager.setNotificationsEnabled(false);
+        new SessionNotification(context).show(SessionPlan.CLASSIC, 0, 0, 60_000);
+
+        assertEquals(0, notificationManager.size());
+    }
+}
@@ -0,0 +1,197 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.provider.Settings;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.finalproject.focus.SessionAnchor;
+import com.finalproject.focus.SessionPlan;
+import com.finalproject.focus.StatCounters;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowAlarmManager;
+import org.robolectric.shadows.ShadowNotificationManager;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs sessions against Robolectric's shadow clock and alarm manager.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SessionStoreTest {
+    private Context context;
+    private ShadowAlarmManager alarmManager;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        alarmManager = shadowOf(context.getSystemService(AlarmManager.class));
+    }
+
+    @Test
+    public void start_schedulesOneAlarmAtDeadline() {
+        long now = SystemClock.elapsedRealtime();
+        SessionStore store = new SessionStore(context);
+        store.start(new SessionAnchor(now, System.currentTimeMillis(), SessionPlan.CLASSIC, 0));
+        // stored in the background
+        store.flush();
+        assertEquals(1, alarmManager.getScheduledAlarms().size());
+        assertEquals(now + TimeUnit.MINUTES.toMillis(5),
+                alarmManager.peekNextScheduledAlarm().getTriggerAtMs());
+    }
+
+    @Test
+    public void alarm_recordsSessionAfterProcessDeath() {
+        long now = SystemClock.elapsedRealtime();
+        SessionStore store = new SessionStore(context);
+        store.start(new SessionAnchor(now, System.currentTimeMillis(), SessionPlan.CLASSIC, 0));
+        // stored in the background
+        store.flush();
+
+        // nothing in memory survives; only the stored anchor and the alarm remain
+        ShadowSystemClock.advanceBy(5, TimeUnit.MINUTES);
+        Intent alarm = shadowOf(alarmManager.peekNextScheduledAlarm().operation).getSavedIntent();
+        assertEquals(SessionStore.ACTION_SESSION_ALARM, alarm.getAction());
+        // what PlantReceiver does with the alarm, on its background thread
+        PlantReceiver.recordFinishedSession(context);
+
+        long today = DayClock.get(context).today();
+        StatCounters.Counts counts = storedCounts();
+        assertEquals(TimeUnit.MINUTES.toMillis(5), counts.getFocusMillis(today));
+        assertEquals(1, counts.getFocusPhases(today));
+        assertNull(new SessionStore(context).load());
+        assertTrue(alarmManager.getScheduledAlarms().isEmpty());
+        // the session is also kept in history, under today's date
+        SessionHistory history = SessionHistory.get(context);
+        history.flush();
+        assertEquals(1, history.queryDays(today, today).get(0).getFocusPhases());
+    }
+
+    @Test
+    public void phaseAlarm_movesAlarmAndNotificationToNextPhase() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(TimeUnit.MINUTES.toMillis(5))
+                .shortBreak(TimeUnit.MINUTES.toMillis(1))
+                .build();
+        long now = SystemClock.elapsedRealtime();
+        SessionStore store = new SessionStore(context);
+        store.start(new SessionAnchor(now, System.currentTimeMillis(), plan, 0));
+        store.flush();
+        assertEquals(now + TimeUnit.MINUTES.toMillis(5),
+                alarmManager.peekNextScheduledAlarm().getTriggerAtMs());
+
+        // the focus phase's alarm, with the app no longer running
+        ShadowSystemClock.advanceBy(5, TimeUnit.MINUTES);
+        PlantReceiver.recordFinishedSession(context);
+        assertEquals(1, storedCounts().getFocusPhases(DayClock.get(context).today()));
+        assertEquals(1, alarmManager.getScheduledAlarms().size());
+        assertEquals(now + TimeUnit.MINUTES.toMillis(6),
+                alarmManager.peekNextScheduledAlarm().getTriggerAtMs());
+        ShadowNotificationManager notificationManager =
+                shadowOf(context.getSystemService(NotificationManager.class));
+        Notification notification =
+                notificationManager.getNotification(SessionNotification.SESSION_NOTIFICATION_ID);
+        assertEquals(context.getString(R.string.session_break),
+                notification.extras.getCharSequence(Notification.EXTRA_TITLE).toString());
+        assertEquals(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1), notification.when);
+
+        // the break's alarm ends the session
+        ShadowSystemClock.advanceBy(1, TimeUnit.MINUTES);
+        PlantReceiver.recordFinishedSession(context);
+        assertNull(store.load());
+        assertTrue(alarmManager.getScheduledAlarms().isEmpty());
+        assertEquals(0, notificationManager.size());
+    }
+
+    @Test
+    public void appAndAlarm_recordFinishedPhaseOnce() {
+        long now = SystemClock.elapsedRealtime();
+        SessionStore store = new SessionStore(context);
+        store.start(new SessionAnchor(now, System.currentTimeMillis(), SessionPlan.CLASSIC, 0));
+        store.flush();
+        ShadowSystemClock.advanceBy(6, TimeUnit.MINUTES);
+
+        // the app sees the session finish, then the alarm fires anyway
+        assertEquals(1, store.recordFinishedFocus());
+        assertEquals(0, store.recordFinishedFocus());
+        PlantReceiver.recordFinishedSession(context);
+
+        assertEquals(1, storedCounts().getFocusPhases(DayClock.get(context).today()));
+    }
+
+    @Test
+    public void unfinishedSession_recordsNothing() {
+        long now = SystemClock.elapsedRealtime();
+        SessionStore store = new SessionStore(context);
+        store.start(new SessionAnchor(now, System.currentTimeMillis(), SessionPlan.CLASSIC, 0));
+        store.flush();
+        ShadowSystemClock.advanceBy(2, TimeUnit.MINUTES);
+
+        assertEquals(0, store.recordFinishedFocus());
+        assertNotNull(store.load());
+        assertSame(StatCounters.Counts.NONE, storedCounts());
+    }
+
+    @Test
+    public void reboot_rebasesAnchorAndSchedulesAlarmAgain() {
+        long now = SystemClock.elapsedRealtime();
+        Settings.Global.putInt(context.getContentResolver(), Settings.Global.BOOT_COUNT, 1);
+        // started two minutes ago by the wall clock, in the boot before
+        SessionStore store = new SessionStore(context);
+        store.start(new SessionAnchor(now,
+                System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(2), SessionPlan.CLASSIC, 0));
+        store.flush();
+        Settings.Global.putInt(context.getContentResolver(), Settings.Global.BOOT_COUNT, 2);
+
+        SessionAnchor anchor = new SessionStore(context).load();
+        assertNotNull(anchor);
+        assertEquals(now - TimeUnit.MINUTES.toMillis(2), anchor.getStartElapsedMillis());
+        assertEquals(1, alarmManager.getScheduledAlarms().size());
+        assertEquals(now + TimeUnit.MINUTES.toMillis(3),
+                alarmManager.peekNextScheduledAlarm().getTriggerAtMs());
+    }
+
+    @Test
+    public void anchorInFocusData_isMovedOutOfBackedUpPrefs() {
+        long now = SystemClock.elapsedRealtime();
+        SharedPreferences focusData = context.getSharedPreferences(SettingsStore.PREFS_NAME,
+                Context.MODE_PRIVATE);
+        // as stored before the anchor had a file of its own
+        focusData.edit()
+                .putString("session_plan", SessionPlan.CLASSIC.encode())
+                .putLong("session_start_elapsed", now)
+                .putLong("session_start_wall", System.currentTimeMillis())
+                .putInt("session_claimed", 0)
+                .commit();
+
+        SessionAnchor anchor = new SessionStore(context).load();
+        assertNotNull(anchor);
+        assertEquals(now, anchor.getStartElapsedMillis());
+        assertFalse(focusData.contains("session_plan"));
+        assertTrue(context.getSharedPreferences(SessionStore.PREFS_NAME, Context.MODE_PRIVATE)
+                .contains("session_plan"));
+    }
+
+    /**
+     * Reads the focus counters as last committed by FocusStats.
+     */
+    private StatCounters.Counts storedCounts() {
+        SettingsStore settingsStore = SettingsStore.get(context);
+        settingsStore.awaitLoaded();
+        return settingsStore.peek().getFocusCounts();
+    }
+}
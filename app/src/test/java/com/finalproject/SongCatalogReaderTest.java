@@ -0,0 +1,58 @@
+package com.finalproject;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * Streams song catalogs a page at a time.
+ */
+public class SongCatalogReaderTest {
+
+    @Test
+    public void catalog_isReadInPages() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"songName\": \"Song ").append(i)
+                    .append("\", \"genre\": \"Jazz\", \"image\": \"image_").append(i)
+                    .append("\", \"song\": \"song_").append(i).append("\"}");
+        }
+        json.append("]");
+
+        try (SongCatalogReader reader = new SongCatalogReader(new StringReader(json.toString()))) {
+            List<SongCatalogReader.Entry> first = reader.next(2);
+            assertEquals(2, first.size());
+            assertEquals("Song 0", first.get(0).songName);
+            assertEquals("song_1", first.get(1).song);
+            assertEquals(2, reader.next(2).size());
+            List<SongCatalogReader.Entry> last = reader.next(2);
+            assertEquals(1, last.size());
+            assertEquals("image_4", last.get(0).image);
+            assertEquals(0, reader.next(2).size());
+        }
+    }
+
+    @Test
+    public void unknownAndMissingFields_areTolerated() throws IOException {
+        String json = "[{\"songName\": \"Farm\", \"bpm\": 90, \"tags\": [\"calm\"],"
+                + " \"genre\": null, \"song\": \"farm\"}]";
+        try (SongCatalogReader reader = new SongCatalogReader(new StringReader(json))) {
+            SongCatalogReader.Entry entry = reader.next(10).get(0);
+            assertEquals("Farm", entry.songName);
+            assertEquals("", entry.genre);
+            assertEquals("", entry.image);
+            assertEquals("farm", entry.song);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notAnArray_isRejected() throws IOException {
+        try (SongCatalogReader reader = new SongCatalogReader(new StringReader("{}"))) {
+            reader.next(10);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+
+    testImplementation(libs.junit)
+}
+
+// regenerates the app's packed quote corpus after app/quotes.tsv changes
+tasks.register<JavaExec>("packQuotes") {
+    group = "build"
+    description = "Packs app/quotes.tsv into the app's quotes.bin asset."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.finalproject.focus.QuoteCorpus")
+    val source = file("../app/quotes.tsv")
+    val corpus = file("../app/src/main/assets/quotes.bin")
+    inputs.file(source)
+    outputs.file(corpus)
+    args(source.path, corpus.path)
+}
@@ -0,0 +1,137 @@
+package com.finalproject.focus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Fixed-size Bloom filter of strings: remembers which strings have been put in, in a set number
+ * of bits however many there are.
+ * <p>
+ * Each string sets hashCount bits, picked by double hashing a 64-bit FNV-1a hash, so adding and
+ * checking cost the same whatever the count. mightContain never misses a string that was put
+ * in, but may wrongly report one that wasn't; with 2^16 bits (8 KB) and four hashes, that
+ * happens for about 1 in 200 strings after 5,000 have been put in, and 1 in 8 after 15,000.
+ * Not thread-safe.
+ */
+public final class BloomFilter {
+    static final int VERSION = 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] words;
+    private final int hashCount;
+
+    /**
+     * @param bitCount  size of the filter, a positive multiple of 64
+     * @param hashCount bits set for each string
+     */
+    public BloomFilter(int bitCount, int hashCount) {
+        if (bitCount <= 0 || bitCount % 64 != 0 || hashCount <= 0) {
+            throw new IllegalArgumentException("invalid filter: " + bitCount + " bits, "
+                    + hashCount + " hashes");
+        }
+        words = new long[bitCount / 64];
+        this.hashCount = hashCount;
+    }
+
+    public int getBitCount() {
+        return words.length * 64;
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value string to add
+     * @return true if it might have been added before, as mightContain would have said
+     */
+    public boolean put(CharSequence value) {
+        long hash = hash(value);
+        boolean present = true;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitOf(hash, i);
+            long mask = 1L << bit;
+            present &= (words[bit >>> 6] & mask) != 0;
+            words[bit >>> 6] |= mask;
+        }
+        return present;
+    }
+
+    /**
+     * @param value string to check
+     * @return false if it was never added, true if it probably was
+     */
+    public boolean mightContain(CharSequence value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitOf(hash, i);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter to a stream.
+     *
+     * @param out where it's written; not closed
+     * @throws IOException if the stream can't be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeByte(VERSION);
+        data.writeInt(getBitCount());
+        data.writeInt(hashCount);
+        for (long word : words) {
+            data.writeLong(word);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a filter written by write.
+     *
+     * @param in stream to read; not closed
+     * @return the filter, holding the same strings
+     * @throws IOException if the stream can't be read or wasn't written by write
+     */
+    public static BloomFilter read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unknown filter version " + version);
+        }
+        BloomFilter filter;
+        try {
+            filter = new BloomFilter(data.readInt(), data.readInt());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+        for (int i = 0; i < filter.words.length; i++) {
+            filter.words[i] = data.readLong();
+        }
+        return filter;
+    }
+
+    /**
+     * Picks the bit for one of a string's hashes, as h1 + i * h2 over the two halves of its
+     * 64-bit hash.
+     */
+    private int bitOf(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % getBitCount();
+    }
+
+    private static long hash(CharSequence value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,83 @@
+package com.finalproject.focus;
+
+/**
+ * Reusable "m:ss" text buffer for the stopwatch display.
+ * <p>
+ * The text is written into a fixed char array using a precomputed two-digit table, so rendering
+ * a tick allocates nothing. Callers pass chars() and length() straight to
+ * TextView.setText(char[], int, int).
+ */
+public final class ClockText {
+    // enough for any long minute count, plus ":ss"
+    private static final int MAX_LENGTH = 23;
+    private static final char[] TENS = new char[60];
+    private static final char[] ONES = new char[60];
+
+    static {
+        for (int i = 0; i < 60; i++) {
+            TENS[i] = (char) ('0' + i / 10);
+            ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    private final char[] chars = new char[MAX_LENGTH];
+    private int length;
+    private long seconds = -1;
+
+    /**
+     * Renders the given number of seconds, if it differs from what is already in the buffer.
+     *
+     * @param totalSeconds whole seconds to display, must not be negative
+     * @return true if the text changed
+     */
+    public boolean setSeconds(long totalSeconds) {
+        if (totalSeconds < 0) {
+            throw new IllegalArgumentException("seconds must not be negative");
+        }
+        if (totalSeconds == seconds) {
+            return false;
+        }
+        seconds = totalSeconds;
+        long minutes = totalSeconds / 60;
+        int secs = (int) (totalSeconds % 60);
+        // minutes are written right to left, then moved to the start of the buffer
+        int pos = MAX_LENGTH - 3;
+        do {
+            chars[--pos] = (char) ('0' + (int) (minutes % 10));
+            minutes /= 10;
+        } while (minutes > 0);
+        int minuteDigits = MAX_LENGTH - 3 - pos;
+        System.arraycopy(chars, pos, chars, 0, minuteDigits);
+        chars[minuteDigits] = ':';
+        chars[minuteDigits + 1] = TENS[secs];
+        chars[minuteDigits + 2] = ONES[secs];
+        length = minuteDigits + 3;
+        return true;
+    }
+
+    /**
+     * @return the backing buffer; only the first length() chars are valid
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    /**
+     * @return number of valid chars in the buffer
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the seconds currently rendered, or -1 if nothing has been rendered yet
+     */
+    public long seconds() {
+        return seconds;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
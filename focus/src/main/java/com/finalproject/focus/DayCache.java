@@ -0,0 +1,136 @@
+package com.finalproject.focus;
+
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Maps wall-clock times to local epoch days, caching the bounds of the most recent day.
+ * <p>
+ * Looking up a time within the cached day is two comparisons, with no formatting, parsing or
+ * allocation. The bounds are taken from the time zone's actual offsets, so days shortened or
+ * lengthened by daylight saving are handled. A cache is tied to one time zone; a new one is
+ * made when the zone changes.
+ */
+public final class DayCache {
+    // daylight saving transitions fall on a quarter hour
+    private static final long TRANSITION_STEP = 15 * 60_000L;
+
+    /**
+     * Bounds of one local day, replaced as a whole so reads need no locking.
+     */
+    private static final class Span {
+        final long day;
+        final long startWall;
+        final long endWall;
+
+        Span(long day, long startWall, long endWall) {
+            this.day = day;
+            this.startWall = startWall;
+            this.endWall = endWall;
+        }
+    }
+
+    private final TimeZone zone;
+    private volatile Span span = new Span(0, Long.MAX_VALUE, Long.MIN_VALUE);
+
+    /**
+     * @param zone time zone days are counted in
+     */
+    public DayCache(TimeZone zone) {
+        this.zone = (TimeZone) zone.clone();
+    }
+
+    public TimeZone getZone() {
+        return (TimeZone) zone.clone();
+    }
+
+    /**
+     * @param wallMillis wall-clock time
+     * @return the local epoch day containing that time
+     */
+    public long dayOf(long wallMillis) {
+        return spanOf(wallMillis).day;
+    }
+
+    /**
+     * @param wallMillis wall-clock time
+     * @return wall-clock time at which the next local day starts
+     */
+    public long nextDayStart(long wallMillis) {
+        return spanOf(wallMillis).endWall;
+    }
+
+    /**
+     * Works out when a local day starts. If local midnight is skipped by a daylight saving
+     * change, the day starts at the first instant that falls on it.
+     *
+     * @param epochDay local epoch day
+     * @return wall-clock time at the start of that day
+     */
+    public long startOf(long epochDay) {
+        long localMidnight = epochDay * EpochDays.MILLIS_PER_DAY;
+        // the offset at midnight may differ from the offset a few hours either side of it
+        long start = localMidnight - zone.getOffset(localMidnight);
+        start = localMidnight - zone.getOffset(start);
+        while (EpochDays.ofWallMillis(start, zone) < epochDay) {
+            start += TRANSITION_STEP;
+        }
+        while (EpochDays.ofWallMillis(start - TRANSITION_STEP, zone) == epochDay) {
+            start -= TRANSITION_STEP;
+        }
+        return start;
+    }
+
+    /**
+     * Splits focus time across the local days it covers, so time before and after midnight
+     * is counted on the right day. The finished phases are counted on the day the time ends.
+     * Records are appended to out, and merged with its last record if that's the same day.
+     *
+     * @param startWall        wall-clock start of the focus time
+     * @param endWall          wall-clock end of the focus time
+     * @param focusPhases      focus phases finished at endWall
+     * @param sessionStartWall wall-clock start of the whole session, stored with each record
+     * @param out              list the records are added to
+     */
+    public void split(long startWall, long endWall, int focusPhases, long sessionStartWall,
+                      List<SessionRecord> out) {
+        long from = startWall;
+        while (true) {
+            Span day = spanOf(from);
+            boolean last = endWall <= day.endWall;
+            long to = last ? endWall : day.endWall;
+            append(out, new SessionRecord(day.day, sessionStartWall, Math.max(0, to - from),
+                    last ? focusPhases : 0));
+            if (last) {
+                return;
+            }
+            from = to;
+        }
+    }
+
+    private static void append(List<SessionRecord> out, SessionRecord record) {
+        if (!out.isEmpty()) {
+            int lastIndex = out.size() - 1;
+            SessionRecord previous = out.get(lastIndex);
+            if (previous.getEpochDay() == record.getEpochDay()) {
+                out.set(lastIndex, new SessionRecord(record.getEpochDay(),
+                        previous.getStartWallMillis(),
+                        previous.getFocusMillis() + record.getFocusMillis(),
+                        previous.getFocusPhases() + record.getFocusPhases()));
+                return;
+            }
+        }
+        out.add(record);
+    }
+
+    private Span spanOf(long wallMillis) {
+        Span cached = span;
+        if (wallMillis >= cached.startWall && wallMillis < cached.endWall) {
+            return cached;
+        }
+        long day = EpochDays.ofWallMillis(wallMillis, zone);
+        Span next = new Span(day, startOf(day), startOf(day + 1));
+        span = next;
+        return next;
+    }
+}
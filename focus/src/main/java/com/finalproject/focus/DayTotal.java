@@ -0,0 +1,33 @@
+package com.finalproject.focus;
+
+/**
+ * Immutable focus totals for a single day.
+ */
+public final class DayTotal {
+    private final long epochDay;
+    private final long focusMillis;
+    private final int focusPhases;
+
+    /**
+     * @param epochDay    day the totals belong to
+     * @param focusMillis focus time completed that day
+     * @param focusPhases focus phases completed that day
+     */
+    public DayTotal(long epochDay, long focusMillis, int focusPhases) {
+        this.epochDay = epochDay;
+        this.focusMillis = focusMillis;
+        this.focusPhases = focusPhases;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public long getFocusMillis() {
+        return focusMillis;
+    }
+
+    public int getFocusPhases() {
+        return focusPhases;
+    }
+}
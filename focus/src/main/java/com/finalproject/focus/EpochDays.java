@@ -0,0 +1,137 @@
+package com.finalproject.focus;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Converts between dates and epoch days (days since 1970-01-01), the key used to index
+ * session history.
+ * <p>
+ * An epoch day is a single long, so days can be compared, subtracted and range-queried without
+ * formatting or parsing date strings.
+ */
+public final class EpochDays {
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private EpochDays() {
+    }
+
+    /**
+     * @param wallMillis wall-clock time, in milliseconds since the epoch
+     * @param zone       time zone the day is counted in
+     * @return the local epoch day containing the given time
+     */
+    public static long ofWallMillis(long wallMillis, TimeZone zone) {
+        return Math.floorDiv(wallMillis + zone.getOffset(wallMillis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Works out the epoch day of a calendar date, in the proleptic Gregorian calendar.
+     *
+     * @param year  year, for example 2024
+     * @param month month, 1 to 12
+     * @param day   day of the month, from 1 to the length of the month
+     * @return epoch day of the date
+     * @throws IllegalArgumentException if there is no such date, for example February 30th
+     */
+    public static long ofDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("invalid date: " + year + "-" + month + "-" + day);
+        }
+        // years are counted from March, so the leap day falls at the end of the year
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        // 719468 days separate 0000-03-01 and 1970-01-01
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    /**
+     * @param year  year, for example 2024
+     * @param month month, 1 to 12
+     * @return number of days in the month, counting February 29th in leap years
+     */
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @param epochDay any epoch day
+     * @return epoch day of the Monday starting that day's week
+     */
+    public static long weekStart(long epochDay) {
+        // 1970-01-01 was a Thursday, three days after a Monday
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    /**
+     * Works out which month a day falls in, as a single number that increases by one each month.
+     *
+     * @param epochDay any epoch day
+     * @return year * 12 + (month - 1)
+     */
+    public static long monthKey(long epochDay) {
+        // the reverse of ofDate, with years again counted from March
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra =
+                (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * @param epochDay any epoch day
+     * @return calendar year the day falls in
+     */
+    public static int yearOf(long epochDay) {
+        return (int) Math.floorDiv(monthKey(epochDay), 12);
+    }
+
+    /**
+     * Writes a day as an ISO-8601 date, used in exported history.
+     *
+     * @param epochDay any epoch day
+     * @return the date, as yyyy-MM-dd
+     */
+    public static String format(long epochDay) {
+        long monthKey = monthKey(epochDay);
+        int year = (int) Math.floorDiv(monthKey, 12);
+        int month = (int) Math.floorMod(monthKey, 12) + 1;
+        long dayOfMonth = epochDay - ofDate(year, month, 1) + 1;
+        return String.format(Locale.ROOT, "%04d-%02d-%02d", year, month, dayOfMonth);
+    }
+
+    /**
+     * Reads a date written by format.
+     *
+     * @param date date, as yyyy-MM-dd
+     * @return epoch day of the date
+     * @throws IllegalArgumentException if the date can't be read
+     */
+    public static long parse(String date) {
+        String[] parts = date.split("-");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("invalid date: " + date);
+        }
+        return ofDate(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2]));
+    }
+}
@@ -0,0 +1,151 @@
+package com.finalproject.focus;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Typed, in-process event bus.
+ * <p>
+ * Events are plain objects, delivered on the posting thread straight to the subscribers of their
+ * exact class, with no marshalling. Each class's subscribers are held in an immutable array
+ * swapped by compare-and-set, so posting never locks or allocates, and subscribing or
+ * cancelling while an event is being delivered is safe.
+ * <p>
+ * OnceEvents are meant to be handled exactly once: a subscriber handles one only if its claim()
+ * succeeds. An OnceEvent nobody claims is held, and delivered to each new subscriber of its
+ * class until one claims it, so it isn't lost while, for example, an activity is being
+ * recreated.
+ */
+public final class EventBus {
+
+    /**
+     * Receives events of one class.
+     *
+     * @param <E> type of event received
+     */
+    public interface Subscriber<E> {
+        void onEvent(E event);
+    }
+
+    /**
+     * Handle returned by subscribe, used to stop receiving events.
+     */
+    public final class Subscription {
+        private final Class<?> type;
+        private final Subscriber<?> subscriber;
+
+        private Subscription(Class<?> type, Subscriber<?> subscriber) {
+            this.type = type;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Stops delivery to the subscriber. Safe to call more than once.
+         */
+        public void cancel() {
+            AtomicReference<Subscriber<?>[]> list = subscribers.get(type);
+            Subscriber<?>[] current;
+            Subscriber<?>[] next;
+            do {
+                current = list.get();
+                int index = Arrays.asList(current).indexOf(subscriber);
+                if (index < 0) {
+                    return;
+                }
+                next = new Subscriber<?>[current.length - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, next.length - index);
+            } while (!list.compareAndSet(current, next));
+        }
+    }
+
+    private static final Subscriber<?>[] NONE = new Subscriber<?>[0];
+
+    private final ConcurrentMap<Class<?>, AtomicReference<Subscriber<?>[]>> subscribers =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, OnceEvent> unclaimed = new ConcurrentHashMap<>();
+
+    /**
+     * Starts delivering events of the given class. An unclaimed OnceEvent of that class is
+     * delivered straight away, on the calling thread.
+     *
+     * @param type       class of event to receive
+     * @param subscriber receives the events
+     * @param <E>        type of event
+     * @return handle used to cancel the subscription
+     */
+    public <E> Subscription subscribe(Class<E> type, Subscriber<? super E> subscriber) {
+        AtomicReference<Subscriber<?>[]> list =
+                subscribers.computeIfAbsent(type, key -> new AtomicReference<>(NONE));
+        Subscriber<?>[] current;
+        Subscriber<?>[] next;
+        do {
+            current = list.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscriber;
+        } while (!list.compareAndSet(current, next));
+        // added before checking, so an event held meanwhile is seen by one or the other
+        OnceEvent held = unclaimed.get(type);
+        if (held != null) {
+            deliver(type, subscriber, held);
+            if (held.isClaimed()) {
+                unclaimed.remove(type, held);
+            }
+        }
+        return new Subscription(type, subscriber);
+    }
+
+    /**
+     * Delivers an event to every current subscriber of its class, on the calling thread.
+     * An OnceEvent that no subscriber claims is held for the next subscriber, replacing any
+     * held before it.
+     *
+     * @param event event to deliver
+     */
+    public void post(Object event) {
+        Class<?> type = event.getClass();
+        deliverToAll(type, event);
+        if (event instanceof OnceEvent) {
+            OnceEvent once = (OnceEvent) event;
+            if (!once.isClaimed()) {
+                unclaimed.put(type, once);
+                // a subscriber added during delivery may have missed it; claiming stops repeats
+                deliverToAll(type, event);
+                if (once.isClaimed()) {
+                    unclaimed.remove(type, once);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops an unclaimed OnceEvent of the given class, for example once whatever would handle
+     * it has gone away for good.
+     *
+     * @param type class of event to drop
+     */
+    public void discardUnclaimed(Class<? extends OnceEvent> type) {
+        unclaimed.remove(type);
+    }
+
+    private void deliverToAll(Class<?> type, Object event) {
+        AtomicReference<Subscriber<?>[]> list = subscribers.get(type);
+        if (list == null) {
+            return;
+        }
+        for (Subscriber<?> subscriber : list.get()) {
+            deliver(type, subscriber, event);
+            if (event instanceof OnceEvent && ((OnceEvent) event).isClaimed()) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void deliver(Class<?> type, Subscriber<?> subscriber, Object event) {
+        // subscribers are only ever stored under the class they accept
+        ((Subscriber<Object>) subscriber).onEvent(type.cast(event));
+    }
+}
@@ -0,0 +1,131 @@
+package com.finalproject.focus;
+
+import java.util.Arrays;
+
+/**
+ * Immutable per-day focus intensity, for the year-view heatmap on the stats screen.
+ * <p>
+ * Each day is stored as a two-bit level (none, low, medium or high), four days to a byte, in one
+ * 92-byte block per calendar year. Blocks are kept in an array sorted by year and found by
+ * binary search, so a year of history costs under a hundred bytes. withLevel() copies only the
+ * block it changes; every other block is shared with the previous heatmap, which lets a view
+ * tell which years have changed without comparing them.
+ */
+public final class FocusHeatmap {
+    /**
+     * Highest intensity level; levels run from 0 (no focus) to MAX_LEVEL.
+     */
+    public static final int MAX_LEVEL = 3;
+
+    /**
+     * Heatmap before any session has been recorded.
+     */
+    public static final FocusHeatmap EMPTY = new FocusHeatmap(new int[0], new byte[0][]);
+
+    private static final int BITS_PER_DAY = 2;
+    private static final int DAYS_PER_BYTE = 8 / BITS_PER_DAY;
+    private static final int BLOCK_BYTES = (366 + DAYS_PER_BYTE - 1) / DAYS_PER_BYTE;
+
+    private final int[] years;
+    private final byte[][] blocks;
+
+    private FocusHeatmap(int[] years, byte[][] blocks) {
+        this.years = years;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Works out the level shown for a day's focus sessions.
+     *
+     * @param focusPhases focus phases completed in the day
+     * @return 0 for none, 1 for one, 2 for two or three, MAX_LEVEL for four or more
+     */
+    public static int levelOf(int focusPhases) {
+        if (focusPhases <= 0) {
+            return 0;
+        }
+        if (focusPhases == 1) {
+            return 1;
+        }
+        return focusPhases <= 3 ? 2 : MAX_LEVEL;
+    }
+
+    /**
+     * @param epochDay any epoch day
+     * @return intensity level of that day, 0 if nothing was recorded
+     */
+    public int getLevel(long epochDay) {
+        int year = EpochDays.yearOf(epochDay);
+        int index = Arrays.binarySearch(years, year);
+        if (index < 0) {
+            return 0;
+        }
+        int dayOfYear = (int) (epochDay - EpochDays.ofDate(year, 1, 1));
+        int shift = (dayOfYear % DAYS_PER_BYTE) * BITS_PER_DAY;
+        return (blocks[index][dayOfYear / DAYS_PER_BYTE] >> shift) & MAX_LEVEL;
+    }
+
+    /**
+     * Sets the level of one day.
+     *
+     * @param epochDay any epoch day
+     * @param level    0 to MAX_LEVEL
+     * @return updated heatmap; this instance is unchanged, and shares every other year with it
+     */
+    public FocusHeatmap withLevel(long epochDay, int level) {
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("invalid level: " + level);
+        }
+        if (getLevel(epochDay) == level) {
+            return this;
+        }
+        int year = EpochDays.yearOf(epochDay);
+        int index = Arrays.binarySearch(years, year);
+        int[] nextYears = years;
+        byte[][] nextBlocks = blocks.clone();
+        byte[] block;
+        if (index >= 0) {
+            block = blocks[index].clone();
+        } else {
+            // a year seen for the first time is inserted in order
+            index = -index - 1;
+            nextYears = new int[years.length + 1];
+            nextBlocks = new byte[blocks.length + 1][];
+            System.arraycopy(years, 0, nextYears, 0, index);
+            System.arraycopy(years, index, nextYears, index + 1, years.length - index);
+            System.arraycopy(blocks, 0, nextBlocks, 0, index);
+            System.arraycopy(blocks, index, nextBlocks, index + 1, blocks.length - index);
+            nextYears[index] = year;
+            block = new byte[BLOCK_BYTES];
+        }
+        int dayOfYear = (int) (epochDay - EpochDays.ofDate(year, 1, 1));
+        int shift = (dayOfYear % DAYS_PER_BYTE) * BITS_PER_DAY;
+        int b = dayOfYear / DAYS_PER_BYTE;
+        block[b] = (byte) ((block[b] & ~(MAX_LEVEL << shift)) | (level << shift));
+        nextBlocks[index] = block;
+        return new FocusHeatmap(nextYears, nextBlocks);
+    }
+
+    /**
+     * Checks whether a year is unchanged from another heatmap, without comparing its days.
+     *
+     * @param other another heatmap, usually the one this was built from
+     * @param year  calendar year
+     * @return true if both heatmaps hold the same block (or no block) for the year
+     */
+    public boolean sharesYear(FocusHeatmap other, int year) {
+        return findBlock(year) == other.findBlock(year);
+    }
+
+    /**
+     * @return number of years with at least one level stored
+     */
+    public int getYearCount() {
+        return years.length;
+    }
+
+    private byte[] findBlock(int year) {
+        int index = Arrays.binarySearch(years, year);
+        return index >= 0 ? blocks[index] : null;
+    }
+}
@@ -0,0 +1,205 @@
+package com.finalproject.focus;
+
+/**
+ * Framework-free focus session engine.
+ * <p>
+ * The session runs a SessionPlan, anchored to a monotonic start time (for example
+ * SystemClock.elapsedRealtime()), so the remaining time is always worked out from the deadline
+ * rather than by counting ticks. If one or more ticks are missed, the next call to update() catches
+ * up and delivers every milestone that has passed since, in order. Each milestone and the finish
+ * event are delivered exactly once.
+ */
+public final class FocusSession {
+
+    /**
+     * Receives session events. Callbacks run on whichever thread calls update().
+     */
+    public interface Listener {
+        /**
+         * Called once per update while the session is running, after any milestones.
+         *
+         * @param phase           index of the phase currently running
+         * @param remainingMillis time left in that phase, never negative
+         */
+        void onTick(int phase, long remainingMillis);
+
+        /**
+         * Called when a plant stage is reached within a focus phase.
+         *
+         * @param phase index of the phase
+         * @param stage one-based number of the stage that was reached
+         */
+        void onStage(int phase, int stage);
+
+        /**
+         * Called when a phase has run its full length.
+         *
+         * @param phase index of the phase
+         * @param type  kind of phase that finished
+         */
+        void onPhaseFinish(int phase, SessionPlan.PhaseType type);
+
+        /**
+         * Called once, after the final tick, when the whole plan has run.
+         */
+        void onFinish();
+    }
+
+    private enum State {
+        IDLE,
+        RUNNING,
+        FINISHED,
+        CANCELLED,
+    }
+
+    private final SessionPlan plan;
+    private final Listener listener;
+    private State state = State.IDLE;
+    private long startMillis;
+    private int nextMilestone;
+    private int phase;
+
+    /**
+     * @param plan     phases and milestones to run
+     * @param listener receives ticks, milestones and the finish event
+     */
+    public FocusSession(SessionPlan plan, Listener listener) {
+        this.plan = plan;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the session, anchored at the given monotonic time.
+     *
+     * @param nowMillis current monotonic time
+     */
+    public void start(long nowMillis) {
+        if (state == State.RUNNING) {
+            throw new IllegalStateException("session already running");
+        }
+        startMillis = nowMillis;
+        nextMilestone = 0;
+        phase = 0;
+        state = State.RUNNING;
+        update(nowMillis);
+    }
+
+    /**
+     * Brings the session up to date with the given time. Any milestones passed since the last
+     * update are delivered in order, followed by the finish event if the plan has run.
+     *
+     * @param nowMillis current monotonic time
+     * @return time remaining in the current phase, in milliseconds
+     */
+    public long update(long nowMillis) {
+        if (state != State.RUNNING) {
+            return 0;
+        }
+        long elapsed = Math.max(0, nowMillis - startMillis);
+        // catches up on every milestone passed since the last update
+        int milestoneCount = plan.getMilestoneCount();
+        while (nextMilestone < milestoneCount
+                && plan.getMilestoneOffset(nextMilestone) <= elapsed) {
+            int milestonePhase = plan.getMilestonePhase(nextMilestone);
+            int kind = plan.getMilestoneKind(nextMilestone);
+            nextMilestone++;
+            if (kind == SessionPlan.PHASE_END) {
+                phase = Math.min(milestonePhase + 1, plan.getPhaseCount() - 1);
+                listener.onPhaseFinish(milestonePhase, plan.getPhaseType(milestonePhase));
+            } else {
+                listener.onStage(milestonePhase, kind);
+            }
+        }
+        long remaining = Math.max(0, plan.getPhaseEnd(phase) - elapsed);
+        listener.onTick(phase, remaining);
+        if (nextMilestone == milestoneCount) {
+            state = State.FINISHED;
+            listener.onFinish();
+        }
+        return remaining;
+    }
+
+    /**
+     * Stops the session without delivering any further events.
+     */
+    public void cancel() {
+        if (state == State.RUNNING) {
+            state = State.CANCELLED;
+        }
+    }
+
+    /**
+     * @return true while the session has been started and has neither finished nor been cancelled
+     */
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    /**
+     * @return true once the finish event has been delivered
+     */
+    public boolean isFinished() {
+        return state == State.FINISHED;
+    }
+
+    /**
+     * @return the plan this session runs
+     */
+    public SessionPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return index of the phase currently running
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @param nowMillis current monotonic time
+     * @return time left in the current phase, as of the last update, in milliseconds
+     */
+    public long getPhaseRemainingMillis(long nowMillis) {
+        return Math.max(0, plan.getPhaseEnd(phase) - (nowMillis - startMillis));
+    }
+
+    /**
+     * Works out how long to wait before the displayed (whole-second) time changes again,
+     * so callers can schedule their next update on the second boundary rather than a fixed delay.
+     *
+     * @param nowMillis current monotonic time
+     * @return delay in milliseconds until the next second boundary, at least 1
+     */
+    public long millisUntilNextSecond(long nowMillis) {
+        long delay = getPhaseRemainingMillis(nowMillis) % 1000;
+        return delay == 0 ? 1000 : delay;
+    }
+
+    /**
+     * Works out how long to wait before the next milestone, straight from the plan. Used when
+     * nothing is displaying the clock, so the session can sleep between milestones instead of
+     * waking every second.
+     *
+     * @param nowMillis current monotonic time
+     * @return delay in milliseconds until the next stage or phase end, at least 1
+     */
+    public long millisUntilNextMilestone(long nowMillis) {
+        if (nextMilestone >= plan.getMilestoneCount()) {
+            return 1;
+        }
+        long delay = plan.getMilestoneOffset(nextMilestone) - (nowMillis - startMillis);
+        return Math.max(1, delay);
+    }
+
+    /**
+     * Rounds remaining time up to whole seconds, so a fresh phase shows its full length
+     * and 0 is only shown once the phase has finished.
+     *
+     * @param remainingMillis remaining time, in milliseconds
+     * @return remaining time, in whole seconds
+     */
+    public static long toDisplaySeconds(long remainingMillis) {
+        return (remainingMillis + 999) / 1000;
+    }
+}
@@ -0,0 +1,25 @@
+package com.finalproject.focus;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An EventBus event that's handled exactly once. Subscribers call claim() first, and only
+ * handle the event if it returns true; the bus holds an unclaimed event for later subscribers.
+ */
+public abstract class OnceEvent {
+    private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+    /**
+     * @return true for exactly one caller, which then handles the event
+     */
+    public final boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * @return true once the event has been claimed
+     */
+    public final boolean isClaimed() {
+        return claimed.get();
+    }
+}
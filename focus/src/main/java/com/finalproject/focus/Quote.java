@@ -0,0 +1,43 @@
+package com.finalproject.focus;
+
+/**
+ * Immutable quote and its author, as shown on the quote screen.
+ */
+public final class Quote {
+    private final String text;
+    private final String author;
+
+    /**
+     * @param text   the quote itself, without quotation marks
+     * @param author who said it
+     */
+    public Quote(String text, String author) {
+        this.text = text;
+        this.author = author;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Quote)) {
+            return false;
+        }
+        Quote quote = (Quote) other;
+        return text.equals(quote.text) && author.equals(quote.author);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * text.hashCode() + author.hashCode();
+    }
+}
@@ -0,0 +1,148 @@
+package com.finalproject.focus;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packed, read-only collection of quotes, read in place from a buffer such as a memory-mapped
+ * file.
+ * <p>
+ * The file holds a magic number and the quote count, then a fixed-width index of count + 1
+ * four-byte offsets, then the quotes, each stored as UTF-8 text, a tab, and the author. Quote i
+ * runs from offset i to offset i + 1, so reading one is an index lookup and one small read, and
+ * nothing else in the file is touched; the corpus is never parsed as a whole.
+ * <p>
+ * Safe to read from any number of threads.
+ */
+public final class QuoteCorpus {
+    static final int MAGIC = 0x51544331; // "QTC1"
+    private static final int HEADER_BYTES = 8;
+    private static final byte SEPARATOR = '\t';
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int dataStart;
+
+    /**
+     * @param buffer packed corpus, as written by write; read from, never changed
+     * @throws IllegalArgumentException if the buffer doesn't hold a packed corpus
+     */
+    public QuoteCorpus(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not a packed quote corpus");
+        }
+        count = buffer.getInt(4);
+        dataStart = HEADER_BYTES + (count + 1) * 4;
+        if (count < 0 || dataStart > buffer.capacity()
+                || dataStart + buffer.getInt(HEADER_BYTES + count * 4) > buffer.capacity()) {
+            throw new IllegalArgumentException("truncated quote corpus");
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param index position of the quote, from 0 to size() - 1
+     * @return the quote
+     */
+    public Quote get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("quote " + index + " of " + count);
+        }
+        int start = buffer.getInt(HEADER_BYTES + index * 4);
+        int end = buffer.getInt(HEADER_BYTES + (index + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        // absolute reads on a duplicate, so concurrent reads don't share a position
+        ByteBuffer record = buffer.duplicate();
+        record.position(dataStart + start);
+        record.get(bytes);
+        int separator = 0;
+        while (separator < bytes.length && bytes[separator] != SEPARATOR) {
+            separator++;
+        }
+        String text = new String(bytes, 0, separator, StandardCharsets.UTF_8);
+        String author = separator < bytes.length
+                ? new String(bytes, separator + 1, bytes.length - separator - 1,
+                StandardCharsets.UTF_8)
+                : "";
+        return new Quote(text, author);
+    }
+
+    /**
+     * Packs quotes into a corpus.
+     *
+     * @param quotes quotes to pack, in order; neither text nor author may contain a tab
+     * @param out    where the corpus is written; not closed
+     * @throws IOException if the stream can't be written
+     */
+    public static void write(List<Quote> quotes, OutputStream out) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] offsets = new int[quotes.size() + 1];
+        for (int i = 0; i < quotes.size(); i++) {
+            Quote quote = quotes.get(i);
+            if (quote.getText().indexOf(SEPARATOR) >= 0
+                    || quote.getAuthor().indexOf(SEPARATOR) >= 0) {
+                throw new IllegalArgumentException("quote " + i + " contains a tab");
+            }
+            offsets[i] = data.size();
+            data.write(quote.getText().getBytes(StandardCharsets.UTF_8));
+            data.write(SEPARATOR);
+            data.write(quote.getAuthor().getBytes(StandardCharsets.UTF_8));
+        }
+        offsets[quotes.size()] = data.size();
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(quotes.size());
+        for (int offset : offsets) {
+            header.writeInt(offset);
+        }
+        data.writeTo(header);
+        header.flush();
+    }
+
+    /**
+     * Packs a tab-separated file of quotes, one "text, tab, author" per line, into a corpus.
+     * Blank lines and lines starting with # are skipped. Run by the focus module's packQuotes
+     * task.
+     *
+     * @param args source file, then corpus file to write
+     * @throws IOException if either file can't be used
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("usage: QuoteCorpus <quotes.tsv> <quotes.bin>");
+        }
+        List<Quote> quotes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(new File(args[0])), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf(SEPARATOR);
+                if (tab < 0 || line.indexOf(SEPARATOR, tab + 1) >= 0) {
+                    throw new IOException("expected text and author: " + line);
+                }
+                quotes.add(new Quote(line.substring(0, tab), line.substring(tab + 1)));
+            }
+        }
+        try (OutputStream out = new FileOutputStream(new File(args[1]))) {
+            write(quotes, out);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.finalproject.focus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity, first-in first-out buffer of quotes waiting to be shown.
+ * <p>
+ * Quotes are held in a circular array, so taking one or adding a batch never moves the
+ * others. The waiting quotes can be written to a stream and read back in the same order, so
+ * the buffer outlasts the process. Not thread-safe.
+ */
+public final class QuoteRing {
+    static final int VERSION = 1;
+
+    private final Quote[] quotes;
+    // index of the oldest quote
+    private int head;
+    private int size;
+
+    /**
+     * @param capacity most quotes held at once
+     */
+    public QuoteRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        quotes = new Quote[capacity];
+    }
+
+    public int getCapacity() {
+        return quotes.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a quote after the ones already waiting, unless the buffer is full.
+     *
+     * @param quote quote to add
+     * @return true if it was added
+     */
+    public boolean offer(Quote quote) {
+        if (size == quotes.length) {
+            return false;
+        }
+        quotes[(head + size) % quotes.length] = quote;
+        size++;
+        return true;
+    }
+
+    /**
+     * Takes the oldest waiting quote.
+     *
+     * @return the quote, or null if none are waiting
+     */
+    public Quote poll() {
+        if (size == 0) {
+            return null;
+        }
+        Quote quote = quotes[head];
+        quotes[head] = null;
+        head = (head + 1) % quotes.length;
+        size--;
+        return quote;
+    }
+
+    /**
+     * @return the waiting quotes, oldest first
+     */
+    public List<Quote> toList() {
+        List<Quote> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(quotes[(head + i) % quotes.length]);
+        }
+        return list;
+    }
+
+    /**
+     * Writes quotes, as returned by toList, to a stream.
+     *
+     * @param quotes quotes to write, oldest first
+     * @param out    where they're written; not closed
+     * @throws IOException if the stream can't be written
+     */
+    public static void write(List<Quote> quotes, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeByte(VERSION);
+        data.writeInt(quotes.size());
+        for (Quote quote : quotes) {
+            data.writeUTF(quote.getText());
+            data.writeUTF(quote.getAuthor());
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads quotes written by write into a new buffer. Quotes beyond its capacity are dropped.
+     *
+     * @param in       stream to read; not closed
+     * @param capacity capacity of the new buffer
+     * @return the buffer, with the quotes waiting in the order they were written
+     * @throws IOException if the stream can't be read or wasn't written by write
+     */
+    public static QuoteRing read(InputStream in, int capacity) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unknown quote buffer version " + version);
+        }
+        QuoteRing ring = new QuoteRing(capacity);
+        int count = data.readInt();
+        for (int i = 0; i < count; i++) {
+            ring.offer(new Quote(data.readUTF(), data.readUTF()));
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,170 @@
+package com.finalproject.focus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable record of a running session, small enough to persist so the session can outlive
+ * the process that started it.
+ * <p>
+ * The anchor holds the monotonic start time, the wall-clock start time (used to rebase the
+ * session after a reboot, when the monotonic clock restarts), the plan, and how many milestones
+ * have already been claimed. Claiming is what keeps focus time from being recorded twice when
+ * both the app and a scheduled alarm see the same phase finish.
+ */
+public final class SessionAnchor {
+    private final long startElapsedMillis;
+    private final long startWallMillis;
+    private final SessionPlan plan;
+    private final int claimedMilestones;
+
+    /**
+     * @param startElapsedMillis monotonic time the session started at
+     * @param startWallMillis    wall-clock time the session started at
+     * @param plan               plan being run
+     * @param claimedMilestones  number of milestones already recorded
+     */
+    public SessionAnchor(long startElapsedMillis, long startWallMillis, SessionPlan plan,
+                         int claimedMilestones) {
+        this.startElapsedMillis = startElapsedMillis;
+        this.startWallMillis = startWallMillis;
+        this.plan = plan;
+        this.claimedMilestones = claimedMilestones;
+    }
+
+    public long getStartElapsedMillis() {
+        return startElapsedMillis;
+    }
+
+    public long getStartWallMillis() {
+        return startWallMillis;
+    }
+
+    public SessionPlan getPlan() {
+        return plan;
+    }
+
+    public int getClaimedMilestones() {
+        return claimedMilestones;
+    }
+
+    /**
+     * @return monotonic time at which the whole plan has run
+     */
+    public long getDeadlineElapsedMillis() {
+        return startElapsedMillis + plan.getTotalMillis();
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return true once the whole plan has run
+     */
+    public boolean isCompleteAt(long nowElapsedMillis) {
+        return nowElapsedMillis >= getDeadlineElapsedMillis();
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return phase running now; the last phase once the plan has run
+     */
+    public int phaseAt(long nowElapsedMillis) {
+        return plan.phaseAt(Math.max(0, nowElapsedMillis - startElapsedMillis));
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return plant stages reached so far in the phase running now
+     */
+    public int stagesReachedAt(long nowElapsedMillis) {
+        int reached = milestonesReachedAt(nowElapsedMillis);
+        if (reached == 0) {
+            return 0;
+        }
+        // stages are numbered in order within their phase, so the last one reached is the count
+        int last = reached - 1;
+        return plan.getMilestonePhase(last) == phaseAt(nowElapsedMillis)
+                ? plan.getMilestoneKind(last)
+                : 0;
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return monotonic time at which the phase running now ends; the deadline once the plan
+     * has run
+     */
+    public long getPhaseEndElapsedMillisAt(long nowElapsedMillis) {
+        return startElapsedMillis + plan.getPhaseEnd(phaseAt(nowElapsedMillis));
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return number of milestones reached by now, claimed or not
+     */
+    public int milestonesReachedAt(long nowElapsedMillis) {
+        return plan.milestonesReachedAt(Math.max(0, nowElapsedMillis - startElapsedMillis));
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return focus time finished by now that has not been claimed yet, in milliseconds
+     */
+    public long unclaimedFocusMillisAt(long nowElapsedMillis) {
+        return plan.getFocusMillisReached(milestonesReachedAt(nowElapsedMillis))
+                - plan.getFocusMillisReached(claimedMilestones);
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return number of focus phases finished by now that have not been claimed yet
+     */
+    public int unclaimedFocusPhasesAt(long nowElapsedMillis) {
+        return plan.getFocusPhasesReached(milestonesReachedAt(nowElapsedMillis))
+                - plan.getFocusPhasesReached(claimedMilestones);
+    }
+
+    /**
+     * Lists the focus time finished by now that has not been claimed yet, one record per
+     * local day. Phases are placed by wall-clock time, so a phase that spans midnight is split
+     * across the two days.
+     *
+     * @param nowElapsedMillis current monotonic time
+     * @param days             maps wall-clock times to local days
+     * @return records for each day covered, in day order; empty if nothing is unclaimed
+     */
+    public List<SessionRecord> unclaimedFocusRecordsAt(long nowElapsedMillis, DayCache days) {
+        List<SessionRecord> records = new ArrayList<>();
+        int reached = milestonesReachedAt(nowElapsedMillis);
+        for (int m = claimedMilestones; m < reached; m++) {
+            int phase = plan.getMilestonePhase(m);
+            if (plan.getMilestoneKind(m) == SessionPlan.PHASE_END
+                    && plan.getPhaseType(phase) == SessionPlan.PhaseType.FOCUS) {
+                days.split(startWallMillis + plan.getPhaseStart(phase),
+                        startWallMillis + plan.getPhaseEnd(phase), 1, startWallMillis, records);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @param nowElapsedMillis current monotonic time
+     * @return a copy of this anchor with every milestone reached by now marked as claimed
+     */
+    public SessionAnchor claimedAt(long nowElapsedMillis) {
+        return new SessionAnchor(startElapsedMillis, startWallMillis, plan,
+                Math.max(claimedMilestones, milestonesReachedAt(nowElapsedMillis)));
+    }
+
+    /**
+     * Moves the monotonic start so the session keeps its wall-clock position. Used after a
+     * reboot, when the stored monotonic start is ahead of the current monotonic time.
+     *
+     * @param nowElapsedMillis current monotonic time
+     * @param nowWallMillis    current wall-clock time
+     * @return a rebased copy of this anchor
+     */
+    public SessionAnchor rebasedAt(long nowElapsedMillis, long nowWallMillis) {
+        long elapsed = Math.max(0, nowWallMillis - startWallMillis);
+        return new SessionAnchor(nowElapsedMillis - elapsed, startWallMillis, plan,
+                claimedMilestones);
+    }
+}
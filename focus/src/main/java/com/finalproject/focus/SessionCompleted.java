@@ -0,0 +1,20 @@
+package com.finalproject.focus;
+
+/**
+ * Posted when a focus phase finishes while the app is running. Handled exactly once, by
+ * recording the finished focus time and showing the stats.
+ */
+public final class SessionCompleted extends OnceEvent {
+    private final int phase;
+
+    /**
+     * @param phase index of the focus phase that finished
+     */
+    public SessionCompleted(int phase) {
+        this.phase = phase;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+}
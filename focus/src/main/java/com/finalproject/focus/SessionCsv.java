@@ -0,0 +1,52 @@
+package com.finalproject.focus;
+
+import java.io.IOException;
+
+/**
+ * CSV form of session history, one session per line, used to export and import it.
+ * <p>
+ * Rows are written and parsed one at a time, so a history of any length is streamed through
+ * a fixed amount of memory. Each row holds the session's date, start time, focus time and
+ * focus phases, for example "2024-05-01,1714550400000,300000,1".
+ */
+public final class SessionCsv {
+    public static final String HEADER = "date,start_wall_millis,focus_millis,focus_phases";
+
+    private SessionCsv() {
+    }
+
+    /**
+     * Writes one session as a row, including its line break.
+     *
+     * @param out    where the row is written
+     * @param record session to write
+     * @throws IOException if the row can't be written
+     */
+    public static void writeRow(Appendable out, SessionRecord record) throws IOException {
+        out.append(EpochDays.format(record.getEpochDay())).append(',')
+                .append(Long.toString(record.getStartWallMillis())).append(',')
+                .append(Long.toString(record.getFocusMillis())).append(',')
+                .append(Integer.toString(record.getFocusPhases())).append('\n');
+    }
+
+    /**
+     * Reads a row written by writeRow, without its line break.
+     *
+     * @param line row to read
+     * @return the session in the row
+     * @throws IllegalArgumentException if the row isn't a valid session
+     */
+    public static SessionRecord parseRow(String line) {
+        String[] fields = line.trim().split(",");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("expected 4 fields: " + line);
+        }
+        SessionRecord record = new SessionRecord(EpochDays.parse(fields[0].trim()),
+                Long.parseLong(fields[1].trim()), Long.parseLong(fields[2].trim()),
+                Integer.parseInt(fields[3].trim()));
+        if (record.getFocusMillis() < 0 || record.getFocusPhases() < 0) {
+            throw new IllegalArgumentException("negative focus time: " + line);
+        }
+        return record;
+    }
+}
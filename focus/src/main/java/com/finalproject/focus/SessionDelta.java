@@ -0,0 +1,140 @@
+package com.finalproject.focus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compact binary form of a run of sessions, used for incremental backups.
+ * <p>
+ * After a one-byte version, each session is written as the difference from the one before:
+ * epoch day, start time and focus time as zigzag varints, then focus phases as a varint.
+ * Sessions are stored in the order they were recorded, so the differences are small, and a
+ * typical session takes around seven bytes. Both ends stream, one session at a time.
+ */
+public final class SessionDelta {
+    static final int VERSION = 1;
+
+    private SessionDelta() {
+    }
+
+    /**
+     * Writes sessions to a stream, each relative to the previous one.
+     */
+    public static final class Writer {
+        private final OutputStream out;
+        private long day;
+        private long startWallMillis;
+        private long focusMillis;
+
+        /**
+         * Writes the version byte straight away.
+         *
+         * @param out where the sessions are written
+         * @throws IOException if the stream can't be written
+         */
+        public Writer(OutputStream out) throws IOException {
+            this.out = out;
+            out.write(VERSION);
+        }
+
+        public void write(SessionRecord record) throws IOException {
+            writeVarint(out, zigzag(record.getEpochDay() - day));
+            writeVarint(out, zigzag(record.getStartWallMillis() - startWallMillis));
+            writeVarint(out, zigzag(record.getFocusMillis() - focusMillis));
+            writeVarint(out, record.getFocusPhases());
+            day = record.getEpochDay();
+            startWallMillis = record.getStartWallMillis();
+            focusMillis = record.getFocusMillis();
+        }
+    }
+
+    /**
+     * Reads sessions written by Writer, one at a time.
+     */
+    public static final class Reader {
+        private final InputStream in;
+        private long day;
+        private long startWallMillis;
+        private long focusMillis;
+
+        /**
+         * Reads and checks the version byte straight away.
+         *
+         * @param in sessions written by Writer
+         * @throws IOException if the stream can't be read, or is from an unknown version
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = in;
+            int version = in.read();
+            if (version != VERSION) {
+                throw new IOException("unknown session delta version: " + version);
+            }
+        }
+
+        /**
+         * @return the next session, or null at the end of the stream
+         * @throws IOException if the stream can't be read, or ends part way through a session
+         */
+        public SessionRecord next() throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            day += unzigzag(readVarint(in, first));
+            startWallMillis += unzigzag(readVarint(in, in.read()));
+            focusMillis += unzigzag(readVarint(in, in.read()));
+            long focusPhases = readVarint(in, in.read());
+            if (focusPhases > Integer.MAX_VALUE) {
+                throw new IOException("invalid focus phases: " + focusPhases);
+            }
+            return new SessionRecord(day, startWallMillis, focusMillis, (int) focusPhases);
+        }
+    }
+
+    /**
+     * Maps signed values to unsigned ones, so small negative differences stay small.
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes seven bits per byte, lowest first, with the top bit set on all but the last.
+     */
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Reads a varint whose first byte has already been read.
+     */
+    static long readVarint(InputStream in, int first) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b = first;
+        while (true) {
+            if (b < 0) {
+                throw new EOFException("session delta ends part way through a session");
+            }
+            if (shift > 63) {
+                throw new IOException("varint too long");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            b = in.read();
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.finalproject.focus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable sequence of focus, break and long-break phases, each focus phase with any number
+ * of plant stages.
+ * <p>
+ * Every milestone (plant stages and phase ends) is computed once, when the plan is built, into
+ * sorted primitive arrays of offsets from the start of the plan. A running session walks those
+ * arrays with a cursor, and binary search is used to find a position from an arbitrary elapsed
+ * time, so the cost per tick does not depend on how long or complex the plan is.
+ */
+public final class SessionPlan {
+
+    /**
+     * Kind of phase within a plan.
+     */
+    public enum PhaseType {
+        FOCUS,
+        BREAK,
+        LONG_BREAK,
+    }
+
+    /**
+     * Milestone kind used for the end of a phase; stage milestones use their one-based stage.
+     */
+    public static final int PHASE_END = 0;
+
+    /**
+     * The classic session: five minutes of focus, with the plant growing at 3:50, 2:00 and 0:30.
+     */
+    public static final SessionPlan CLASSIC = new Builder()
+            .focus(TimeUnit.MINUTES.toMillis(5),
+                    TimeUnit.SECONDS.toMillis(70),
+                    TimeUnit.SECONDS.toMillis(180),
+                    TimeUnit.SECONDS.toMillis(270))
+            .build();
+
+    private final PhaseType[] phaseTypes;
+    private final long[] phaseStarts;
+    private final long[] phaseEnds;
+    private final int[] phaseStageCounts;
+    private final long[] milestoneOffsets;
+    private final int[] milestonePhases;
+    private final int[] milestoneKinds;
+    private final long[] focusMillisReached;
+    private final int[] focusPhasesReached;
+
+    private SessionPlan(Builder builder) {
+        int phaseCount = builder.types.size();
+        phaseTypes = builder.types.toArray(new PhaseType[0]);
+        phaseStarts = new long[phaseCount];
+        phaseEnds = new long[phaseCount];
+        phaseStageCounts = new int[phaseCount];
+        int milestoneCount = phaseCount;
+        for (long[] stages : builder.stages) {
+            milestoneCount += stages.length;
+        }
+        milestoneOffsets = new long[milestoneCount];
+        milestonePhases = new int[milestoneCount];
+        milestoneKinds = new int[milestoneCount];
+        focusMillisReached = new long[milestoneCount + 1];
+        focusPhasesReached = new int[milestoneCount + 1];
+
+        // phases are laid end to end, so offsets come out already sorted
+        long start = 0;
+        int m = 0;
+        for (int p = 0; p < phaseCount; p++) {
+            long[] stages = builder.stages.get(p);
+            phaseStarts[p] = start;
+            phaseStageCounts[p] = stages.length;
+            for (int s = 0; s < stages.length; s++) {
+                milestoneOffsets[m] = start + stages[s];
+                milestonePhases[m] = p;
+                milestoneKinds[m] = s + 1;
+                m++;
+            }
+            start += builder.durations.get(p);
+            phaseEnds[p] = start;
+            milestoneOffsets[m] = start;
+            milestonePhases[m] = p;
+            milestoneKinds[m] = PHASE_END;
+            m++;
+        }
+
+        // running totals of focus time, indexed by number of milestones reached
+        for (int i = 0; i < milestoneCount; i++) {
+            boolean focusEnd = milestoneKinds[i] == PHASE_END
+                    && phaseTypes[milestonePhases[i]] == PhaseType.FOCUS;
+            long focusMillis = focusEnd ? getPhaseDuration(milestonePhases[i]) : 0;
+            focusMillisReached[i + 1] = focusMillisReached[i] + focusMillis;
+            focusPhasesReached[i + 1] = focusPhasesReached[i] + (focusEnd ? 1 : 0);
+        }
+    }
+
+    /**
+     * @return length of the whole plan, in milliseconds
+     */
+    public long getTotalMillis() {
+        return phaseEnds[phaseEnds.length - 1];
+    }
+
+    public int getPhaseCount() {
+        return phaseTypes.length;
+    }
+
+    public PhaseType getPhaseType(int phase) {
+        return phaseTypes[phase];
+    }
+
+    public long getPhaseStart(int phase) {
+        return phaseStarts[phase];
+    }
+
+    public long getPhaseEnd(int phase) {
+        return phaseEnds[phase];
+    }
+
+    public long getPhaseDuration(int phase) {
+        return phaseEnds[phase] - phaseStarts[phase];
+    }
+
+    public int getStageCount(int phase) {
+        return phaseStageCounts[phase];
+    }
+
+    /**
+     * @return number of milestones (plant stages and phase ends) in the plan
+     */
+    public int getMilestoneCount() {
+        return milestoneOffsets.length;
+    }
+
+    /**
+     * @param index milestone index, in order
+     * @return offset of the milestone from the start of the plan, in milliseconds
+     */
+    public long getMilestoneOffset(int index) {
+        return milestoneOffsets[index];
+    }
+
+    /**
+     * @param index milestone index, in order
+     * @return phase the milestone belongs to
+     */
+    public int getMilestonePhase(int index) {
+        return milestonePhases[index];
+    }
+
+    /**
+     * @param index milestone index, in order
+     * @return one-based plant stage, or PHASE_END
+     */
+    public int getMilestoneKind(int index) {
+        return milestoneKinds[index];
+    }
+
+    /**
+     * Finds the phase running at the given elapsed time, using binary search.
+     *
+     * @param elapsedMillis time since the start of the plan
+     * @return phase index; the last phase once the plan has ended
+     */
+    public int phaseAt(long elapsedMillis) {
+        int index = Arrays.binarySearch(phaseEnds, elapsedMillis);
+        // a phase that ends exactly now is over, so the next one is running
+        int phase = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(phase, phaseEnds.length - 1);
+    }
+
+    /**
+     * Counts the milestones reached by the given elapsed time, using binary search.
+     * This is also the index of the next milestone still to come.
+     *
+     * @param elapsedMillis time since the start of the plan
+     * @return number of milestones with an offset at or before elapsedMillis
+     */
+    public int milestonesReachedAt(long elapsedMillis) {
+        int index = Arrays.binarySearch(milestoneOffsets, elapsedMillis);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // stage and phase-end milestones may share an offset, so step past all equal entries
+        while (index < milestoneOffsets.length && milestoneOffsets[index] <= elapsedMillis) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Looks up the focus time finished by the time the given number of milestones is reached.
+     *
+     * @param milestonesReached number of milestones reached, see milestonesReachedAt
+     * @return length of all focus phases finished by then, in milliseconds
+     */
+    public long getFocusMillisReached(int milestonesReached) {
+        return focusMillisReached[milestonesReached];
+    }
+
+    /**
+     * Looks up the number of focus phases finished by the time the given number of milestones
+     * is reached.
+     *
+     * @param milestonesReached number of milestones reached, see milestonesReachedAt
+     * @return number of focus phases finished by then
+     */
+    public int getFocusPhasesReached(int milestonesReached) {
+        return focusPhasesReached[milestonesReached];
+    }
+
+    /**
+     * Writes the plan as a compact string, so it can be persisted with a running session.
+     * Phases are separated by ';', each written as type, duration and any stage offsets,
+     * for example "F:300000:70000,180000,270000;B:60000".
+     *
+     * @return encoded plan, readable by decode
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        int m = 0;
+        for (int p = 0; p < phaseTypes.length; p++) {
+            if (p > 0) {
+                sb.append(';');
+            }
+            // FOCUS, BREAK and LONG_BREAK are written as F, B and L
+            sb.append(phaseTypes[p].name().charAt(0)).append(':').append(getPhaseDuration(p));
+            for (int s = 0; s < phaseStageCounts[p]; s++) {
+                sb.append(s == 0 ? ':' : ',').append(milestoneOffsets[m++] - phaseStarts[p]);
+            }
+            // skips the phase-end milestone
+            m++;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads a plan written by encode.
+     *
+     * @param encoded encoded plan
+     * @return the decoded plan
+     * @throws IllegalArgumentException if the string is not a valid plan
+     */
+    public static SessionPlan decode(String encoded) {
+        Builder builder = new Builder();
+        try {
+            for (String phase : encoded.split(";")) {
+                String[] parts = phase.split(":");
+                long duration = Long.parseLong(parts[1]);
+                switch (parts[0]) {
+                    case "F":
+                        long[] stages = new long[0];
+                        if (parts.length > 2) {
+                            String[] offsets = parts[2].split(",");
+                            stages = new long[offsets.length];
+                            for (int i = 0; i < offsets.length; i++) {
+                                stages[i] = Long.parseLong(offsets[i]);
+                            }
+                        }
+                        builder.focus(duration, stages);
+                        break;
+                    case "B":
+                        builder.shortBreak(duration);
+                        break;
+                    case "L":
+                        builder.longBreak(duration);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown phase type: " + parts[0]);
+                }
+            }
+            return builder.build();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid session plan: " + encoded, e);
+        }
+    }
+
+    /**
+     * Sums the length of every focus phase, used for focus stats.
+     *
+     * @return total focus time in the plan, in milliseconds
+     */
+    public long getFocusMillis() {
+        long total = 0;
+        for (int p = 0; p < phaseTypes.length; p++) {
+            if (phaseTypes[p] == PhaseType.FOCUS) {
+                total += getPhaseDuration(p);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Builds a plan phase by phase.
+     */
+    public static final class Builder {
+        private final List<PhaseType> types = new ArrayList<>();
+        private final List<Long> durations = new ArrayList<>();
+        private final List<long[]> stages = new ArrayList<>();
+
+        /**
+         * Adds a focus phase.
+         *
+         * @param durationMillis length of the phase
+         * @param stageOffsets   plant stages, as millis since the start of the phase, ascending
+         * @return this builder
+         */
+        public Builder focus(long durationMillis, long... stageOffsets) {
+            for (int i = 0; i < stageOffsets.length; i++) {
+                if (stageOffsets[i] < 0 || stageOffsets[i] > durationMillis
+                        || (i > 0 && stageOffsets[i] < stageOffsets[i - 1])) {
+                    throw new IllegalArgumentException(
+                            "stages must be ascending and within the phase");
+                }
+            }
+            return add(PhaseType.FOCUS, durationMillis, stageOffsets.clone());
+        }
+
+        /**
+         * Adds a focus phase with evenly spaced plant stages.
+         *
+         * @param durationMillis length of the phase
+         * @param stageCount     number of plant stages
+         * @return this builder
+         */
+        public Builder focusWithStages(long durationMillis, int stageCount) {
+            long[] offsets = new long[stageCount];
+            for (int i = 0; i < stageCount; i++) {
+                offsets[i] = durationMillis * (i + 1) / (stageCount + 1);
+            }
+            return add(PhaseType.FOCUS, durationMillis, offsets);
+        }
+
+        public Builder shortBreak(long durationMillis) {
+            return add(PhaseType.BREAK, durationMillis, new long[0]);
+        }
+
+        public Builder longBreak(long durationMillis) {
+            return add(PhaseType.LONG_BREAK, durationMillis, new long[0]);
+        }
+
+        /**
+         * Adds a number of focus/break cycles, replacing every nth break with a long break.
+         * The trailing break after the final focus phase is left out.
+         *
+         * @param cycles           number of focus phases
+         * @param focusMillis      length of each focus phase
+         * @param stageCount       plant stages per focus phase
+         * @param breakMillis      length of a short break
+         * @param longBreakMillis  length of a long break
+         * @param longBreakEvery   a long break follows every this many focus phases
+         * @return this builder
+         */
+        public Builder cycles(int cycles, long focusMillis, int stageCount, long breakMillis,
+                              long longBreakMillis, int longBreakEvery) {
+            for (int c = 1; c <= cycles; c++) {
+                focusWithStages(focusMillis, stageCount);
+                if (c == cycles) {
+                    break;
+                }
+                if (longBreakEvery > 0 && c % longBreakEvery == 0) {
+                    longBreak(longBreakMillis);
+                } else {
+                    shortBreak(breakMillis);
+                }
+            }
+            return this;
+        }
+
+        private Builder add(PhaseType type, long durationMillis, long[] stageOffsets) {
+            if (durationMillis <= 0) {
+                throw new IllegalArgumentException("phase duration must be positive");
+            }
+            types.add(type);
+            durations.add(durationMillis);
+            stages.add(stageOffsets);
+            return this;
+        }
+
+        public SessionPlan build() {
+            if (types.isEmpty()) {
+                throw new IllegalStateException("a plan needs at least one phase");
+            }
+            return new SessionPlan(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.finalproject.focus;
+
+/**
+ * Immutable record of one completed focus session, as stored in session history.
+ */
+public final class SessionRecord {
+    private final long epochDay;
+    private final long startWallMillis;
+    private final long focusMillis;
+    private final int focusPhases;
+
+    /**
+     * @param epochDay        local day the session was completed on
+     * @param startWallMillis wall-clock time the session started at, or 0 if unknown
+     * @param focusMillis     focus time completed
+     * @param focusPhases     number of focus phases completed
+     */
+    public SessionRecord(long epochDay, long startWallMillis, long focusMillis, int focusPhases) {
+        this.epochDay = epochDay;
+        this.startWallMillis = startWallMillis;
+        this.focusMillis = focusMillis;
+        this.focusPhases = focusPhases;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public long getStartWallMillis() {
+        return startWallMillis;
+    }
+
+    public long getFocusMillis() {
+        return focusMillis;
+    }
+
+    public int getFocusPhases() {
+        return focusPhases;
+    }
+}
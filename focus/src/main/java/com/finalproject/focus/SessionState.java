@@ -0,0 +1,108 @@
+package com.finalproject.focus;
+
+/**
+ * Immutable snapshot of a focus session, as shown on screen, apart from the seconds left.
+ * <p>
+ * Fields are primitives (plus the phase type), and equality covers every field, so a stream of
+ * snapshots can skip emitting when nothing visible has changed. The seconds left change on every
+ * tick, so they aren't part of the snapshot; they are rendered into a shared ClockText instead,
+ * and a tick that only changes the seconds doesn't need a new snapshot.
+ */
+public final class SessionState {
+
+    /**
+     * State shown before any session has been started.
+     *
+     * @param plan plan the next session will run
+     * @return an idle snapshot of the plan's first phase
+     */
+    public static SessionState idle(SessionPlan plan) {
+        return new SessionState(false, 0, plan.getPhaseType(0), 0, plan.getStageCount(0));
+    }
+
+    private final boolean running;
+    private final int phase;
+    private final SessionPlan.PhaseType phaseType;
+    private final int stage;
+    private final int stageCount;
+
+    /**
+     * @param running          true while the session is counting down
+     * @param phase            index of the current phase
+     * @param phaseType        kind of the current phase
+     * @param stage            plant stages reached in the current phase
+     * @param stageCount       plant stages in the current phase
+     */
+    public SessionState(boolean running, int phase, SessionPlan.PhaseType phaseType, int stage,
+                        int stageCount) {
+        this.running = running;
+        this.phase = phase;
+        this.phaseType = phaseType;
+        this.stage = stage;
+        this.stageCount = stageCount;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public SessionPlan.PhaseType getPhaseType() {
+        return phaseType;
+    }
+
+    public int getStage() {
+        return stage;
+    }
+
+    public int getStageCount() {
+        return stageCount;
+    }
+
+    /**
+     * Compares the snapshot with the given fields, so a caller can tell whether a new snapshot
+     * is needed without building one.
+     *
+     * @return true if every field has the given value
+     */
+    public boolean matches(boolean running, int phase, SessionPlan.PhaseType phaseType, int stage,
+                           int stageCount) {
+        return this.running == running
+                && this.phase == phase
+                && this.phaseType == phaseType
+                && this.stage == stage
+                && this.stageCount == stageCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SessionState)) {
+            return false;
+        }
+        SessionState other = (SessionState) o;
+        return matches(other.running, other.phase, other.phaseType, other.stage,
+                other.stageCount);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = running ? 1 : 0;
+        result = 31 * result + phase;
+        result = 31 * result + phaseType.hashCode();
+        result = 31 * result + stage;
+        result = 31 * result + stageCount;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionState{running=" + running + ", phase=" + phase + ", phaseType=" + phaseType
+                + ", stage=" + stage + "/" + stageCount + "}";
+    }
+}
@@ -0,0 +1,67 @@
+package com.finalproject.focus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces concurrent calls for the same key into one.
+ * <p>
+ * The first caller to join a key starts the work; callers joining while it's still running
+ * only wait for it. When the work completes, its result is handed to every caller that
+ * joined, and the next caller to join starts afresh.
+ *
+ * @param <K> key naming the work, such as a URL
+ * @param <V> type of result
+ */
+public final class SingleFlight<K, V> {
+    private final Map<K, List<Consumer<? super V>>> inFlight = new HashMap<>();
+
+    /**
+     * Waits for the work named by key, starting it if it isn't already running.
+     *
+     * @param key      names the work
+     * @param callback receives the result, on the thread that completes the work
+     * @return true if the caller must start the work, and call complete once it's done
+     */
+    public synchronized boolean join(K key, Consumer<? super V> callback) {
+        List<Consumer<? super V>> waiting = inFlight.get(key);
+        boolean first = waiting == null;
+        if (first) {
+            waiting = new ArrayList<>();
+            inFlight.put(key, waiting);
+        }
+        waiting.add(callback);
+        return first;
+    }
+
+    /**
+     * Hands the result to every caller that joined, on the calling thread.
+     *
+     * @param key    names the work that completed
+     * @param result result of the work, for example null if it failed
+     */
+    public void complete(K key, V result) {
+        List<Consumer<? super V>> waiting;
+        synchronized (this) {
+            waiting = inFlight.remove(key);
+        }
+        if (waiting == null) {
+            return;
+        }
+        // outside the lock, so callbacks may join again
+        for (Consumer<? super V> callback : waiting) {
+            callback.accept(result);
+        }
+    }
+
+    /**
+     * @param key names the work
+     * @return true if it's running
+     */
+    public synchronized boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+}
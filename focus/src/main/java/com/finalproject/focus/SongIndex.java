@@ -0,0 +1,153 @@
+package com.finalproject.focus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable search index over a song catalog, by name prefix and by genre.
+ * <p>
+ * Names are indexed as a sorted array of keys: the lower-cased name from the start of each of
+ * its words, so "Late Night Radio" is found by "la", "night r" and "radio". A prefix search is
+ * a binary search for the first key at or after the prefix, then a walk over the keys that start
+ * with it, so it never looks at the songs that don't match. Each genre maps to a BitSet of its
+ * songs. Results are BitSets of song IDs, the songs' positions in the catalog, so a name search
+ * and a genre are combined with one and().
+ */
+public final class SongIndex {
+
+    /**
+     * Collects songs, then sorts their keys once in build().
+     */
+    public static final class Builder {
+        private final List<String> keys = new ArrayList<>();
+        private final List<Integer> keyIds = new ArrayList<>();
+        private final Map<String, BitSet> genres = new LinkedHashMap<>();
+        private int size;
+
+        /**
+         * @param id    position of the song in the catalog
+         * @param name  name shown for the song
+         * @param genre genre shown for the song
+         * @return this builder
+         */
+        public Builder add(int id, String name, String genre) {
+            String key = normalize(name);
+            for (int start = 0; start < key.length(); start++) {
+                if (key.charAt(start) != ' ' && (start == 0 || key.charAt(start - 1) == ' ')) {
+                    keys.add(key.substring(start));
+                    keyIds.add(id);
+                }
+            }
+            BitSet songs = genres.get(genre);
+            if (songs == null) {
+                songs = new BitSet();
+                genres.put(genre, songs);
+            }
+            songs.set(id);
+            size = Math.max(size, id + 1);
+            return this;
+        }
+
+        public SongIndex build() {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+            String[] sortedKeys = new String[order.length];
+            int[] sortedIds = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedIds[i] = keyIds.get(order[i]);
+            }
+            return new SongIndex(sortedKeys, sortedIds, new LinkedHashMap<>(genres), size);
+        }
+    }
+
+    public static final SongIndex EMPTY = new Builder().build();
+
+    private final String[] keys;
+    private final int[] keyIds;
+    private final Map<String, BitSet> genres;
+    private final int size;
+
+    private SongIndex(String[] keys, int[] keyIds, Map<String, BitSet> genres, int size) {
+        this.keys = keys;
+        this.keyIds = keyIds;
+        this.genres = genres;
+        this.size = size;
+    }
+
+    /**
+     * @return number of songs covered: one more than the highest song ID
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the genres, in the order they first appear in the catalog
+     */
+    public List<String> getGenres() {
+        return Collections.unmodifiableList(new ArrayList<>(genres.keySet()));
+    }
+
+    /**
+     * Finds the songs matching a search.
+     *
+     * @param prefix start of the name or of any word in it, in any case; empty matches all
+     * @param genre  genre the songs must have, or null for any
+     * @return IDs of the matching songs; a new set the caller may change
+     */
+    public BitSet query(String prefix, String genre) {
+        BitSet matches;
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            matches = new BitSet(size);
+            matches.set(0, size);
+        } else {
+            matches = new BitSet(size);
+            for (int i = lowerBound(key); i < keys.length && keys[i].startsWith(key); i++) {
+                matches.set(keyIds[i]);
+            }
+        }
+        if (genre != null) {
+            BitSet songs = genres.get(genre);
+            if (songs == null) {
+                return new BitSet();
+            }
+            matches.and(songs);
+        }
+        return matches;
+    }
+
+    /**
+     * @return index of the first key not less than the given one
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lower-cases a name or search, and collapses its whitespace to single spaces.
+     */
+    static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
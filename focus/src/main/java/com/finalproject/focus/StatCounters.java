@@ -0,0 +1,219 @@
+package com.finalproject.focus;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Today's focus counters, updated atomically from any thread and written out in coalesced
+ * batches.
+ * <p>
+ * The counters are the single source of truth for today's stats. Each update swaps in a new
+ * immutable Counts with a compare-and-set, so concurrent updates are never lost or overwritten.
+ * Writes to durable storage are coalesced under a FlushPolicy: a burst of updates results in
+ * one write of the latest counts, because each Counts already includes everything before it.
+ * <p>
+ * Crash behaviour: storage always holds a complete Counts from some point in the sequence of
+ * updates, never a partial one, and a write is never replaced by an older one. Updates made
+ * after the last write are lost if the process dies, at most maxPendingUpdates - 1 of them, and
+ * none older than maxDelayMillis. Callers that must not double count (such as SessionStore,
+ * which claims finished phases first) therefore lose at worst a few recent updates, and never
+ * count one twice.
+ */
+public final class StatCounters {
+
+    /**
+     * Immutable counts for one day, with a sequence number that increases with every update.
+     */
+    public static final class Counts {
+        public static final Counts NONE = new Counts(Long.MIN_VALUE, 0, 0, 0);
+
+        private final long epochDay;
+        private final long focusMillis;
+        private final int focusPhases;
+        private final long sequence;
+
+        /**
+         * @param epochDay    day the counts belong to
+         * @param focusMillis focus time completed that day
+         * @param focusPhases focus phases completed that day
+         * @param sequence    number of updates made, across all days
+         */
+        public Counts(long epochDay, long focusMillis, int focusPhases, long sequence) {
+            this.epochDay = epochDay;
+            this.focusMillis = focusMillis;
+            this.focusPhases = focusPhases;
+            this.sequence = sequence;
+        }
+
+        public long getEpochDay() {
+            return epochDay;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * @param today current epoch day
+         * @return focus time completed today; 0 if these counts are from another day
+         */
+        public long getFocusMillis(long today) {
+            return epochDay == today ? focusMillis : 0;
+        }
+
+        /**
+         * @param today current epoch day
+         * @return focus phases completed today; 0 if these counts are from another day
+         */
+        public int getFocusPhases(long today) {
+            return epochDay == today ? focusPhases : 0;
+        }
+    }
+
+    /**
+     * Durable storage for the counters, written from the flush thread.
+     */
+    public interface Sink {
+        /**
+         * Stores the counts, replacing the last ones stored. Must be atomic: either all of
+         * the counts are stored or none are.
+         *
+         * @param counts latest counts
+         */
+        void write(Counts counts);
+    }
+
+    /**
+     * Runs flushes, typically on a background thread.
+     */
+    public interface Scheduler {
+        /**
+         * @param task        task to run
+         * @param delayMillis how long to wait first; 0 to run as soon as possible
+         */
+        void schedule(Runnable task, long delayMillis);
+    }
+
+    /**
+     * When pending updates are written out.
+     */
+    public static final class FlushPolicy {
+        /**
+         * Writes after every update.
+         */
+        public static final FlushPolicy EVERY_UPDATE = new FlushPolicy(1, 0);
+
+        private final int maxPendingUpdates;
+        private final long maxDelayMillis;
+
+        /**
+         * @param maxPendingUpdates updates to hold before writing straight away, at least 1
+         * @param maxDelayMillis    longest an update waits to be written
+         */
+        public FlushPolicy(int maxPendingUpdates, long maxDelayMillis) {
+            if (maxPendingUpdates < 1 || maxDelayMillis < 0) {
+                throw new IllegalArgumentException("invalid flush policy");
+            }
+            this.maxPendingUpdates = maxPendingUpdates;
+            this.maxDelayMillis = maxDelayMillis;
+        }
+
+        public int getMaxPendingUpdates() {
+            return maxPendingUpdates;
+        }
+
+        public long getMaxDelayMillis() {
+            return maxDelayMillis;
+        }
+    }
+
+    private final FlushPolicy policy;
+    private final Sink sink;
+    private final Scheduler scheduler;
+    private final AtomicReference<Counts> counts;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean batchFlushScheduled = new AtomicBoolean(false);
+    private final AtomicLong writtenSequence;
+    // only one flush writes to the sink at a time, so writes stay in order
+    private final Object flushLock = new Object();
+
+    /**
+     * @param restored  counts read back from the sink's storage, or Counts.NONE
+     * @param policy    when pending updates are written
+     * @param sink      durable storage
+     * @param scheduler runs flushes
+     */
+    public StatCounters(Counts restored, FlushPolicy policy, Sink sink, Scheduler scheduler) {
+        this.counts = new AtomicReference<>(restored);
+        this.writtenSequence = new AtomicLong(restored.getSequence());
+        this.policy = policy;
+        this.sink = sink;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Atomically adds to a day's counts. Updates for a later day start that day from zero;
+     * updates for an earlier day than the current counts are ignored, since only today's
+     * counts are kept.
+     *
+     * @param epochDay    day the focus time was completed on
+     * @param focusMillis focus time to add
+     * @param focusPhases focus phases to add
+     * @return the counts after this update
+     */
+    public Counts add(long epochDay, long focusMillis, int focusPhases) {
+        Counts current;
+        Counts next;
+        do {
+            current = counts.get();
+            if (epochDay < current.epochDay) {
+                return current;
+            }
+            boolean sameDay = epochDay == current.epochDay;
+            next = new Counts(epochDay,
+                    (sameDay ? current.focusMillis : 0) + focusMillis,
+                    (sameDay ? current.focusPhases : 0) + focusPhases,
+                    current.sequence + 1);
+        } while (!counts.compareAndSet(current, next));
+        scheduleFlush(next);
+        return next;
+    }
+
+    /**
+     * @return the latest counts, including any not written yet
+     */
+    public Counts get() {
+        return counts.get();
+    }
+
+    /**
+     * Writes the latest counts, if they haven't been written already. Called by the scheduler,
+     * or directly before the process is expected to end.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            // cleared first, so an update made during the write schedules another flush
+            flushScheduled.set(false);
+            batchFlushScheduled.set(false);
+            Counts latest = counts.get();
+            if (latest.sequence <= writtenSequence.get()) {
+                return;
+            }
+            sink.write(latest);
+            writtenSequence.set(latest.sequence);
+        }
+    }
+
+    private void scheduleFlush(Counts next) {
+        long pending = next.sequence - writtenSequence.get();
+        if (pending >= policy.maxPendingUpdates) {
+            // a full batch is written straight away, even if a delayed flush is scheduled
+            if (batchFlushScheduled.compareAndSet(false, true)) {
+                scheduler.schedule(this::flush, 0);
+            }
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, policy.maxDelayMillis);
+        }
+    }
+}
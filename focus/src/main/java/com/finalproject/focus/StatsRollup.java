@@ -0,0 +1,160 @@
+package com.finalproject.focus;
+
+/**
+ * Immutable running totals for the stats screen: today, this week, this month and the current
+ * streak of days with at least one focus session.
+ * <p>
+ * Each completed session is folded in with plus(), which does a constant amount of work no
+ * matter how much history exists, so the figures never have to be computed by scanning past
+ * sessions. The totals are kept for the latest day, week and month seen; reading them for a
+ * later day (for example after midnight) returns zero for any period that has since rolled over.
+ */
+public final class StatsRollup {
+    // far enough from any real day that it's never adjacent to one
+    private static final long NO_DAY = Long.MIN_VALUE / 2;
+
+    /**
+     * Totals before any session has been recorded.
+     */
+    public static final StatsRollup EMPTY = new StatsRollup(new long[]{
+            NO_DAY, 0, 0, NO_DAY, 0, 0, NO_DAY, 0, 0, NO_DAY, NO_DAY});
+
+    // indices into the state array, which is also the encoded form
+    private static final int DAY = 0;
+    private static final int DAY_MILLIS = 1;
+    private static final int DAY_PHASES = 2;
+    private static final int WEEK = 3;
+    private static final int WEEK_MILLIS = 4;
+    private static final int WEEK_PHASES = 5;
+    private static final int MONTH = 6;
+    private static final int MONTH_MILLIS = 7;
+    private static final int MONTH_PHASES = 8;
+    private static final int STREAK_START = 9;
+    private static final int STREAK_END = 10;
+    private static final int STATE_LENGTH = 11;
+
+    private final long[] state;
+
+    private StatsRollup(long[] state) {
+        this.state = state;
+    }
+
+    /**
+     * Folds one completed session into the totals.
+     *
+     * @param epochDay    day the session was completed on
+     * @param focusMillis focus time completed
+     * @param focusPhases focus phases completed
+     * @return updated totals; this instance is unchanged
+     */
+    public StatsRollup plus(long epochDay, long focusMillis, int focusPhases) {
+        long[] next = state.clone();
+        addToPeriod(next, DAY, epochDay, focusMillis, focusPhases);
+        addToPeriod(next, WEEK, EpochDays.weekStart(epochDay), focusMillis, focusPhases);
+        addToPeriod(next, MONTH, EpochDays.monthKey(epochDay), focusMillis, focusPhases);
+        // the streak is the run of consecutive days ending on the latest day with a session
+        long start = next[STREAK_START];
+        long end = next[STREAK_END];
+        if (epochDay > end + 1) {
+            next[STREAK_START] = epochDay;
+            next[STREAK_END] = epochDay;
+        } else if (epochDay == end + 1) {
+            next[STREAK_END] = epochDay;
+        } else if (epochDay == start - 1) {
+            next[STREAK_START] = epochDay;
+        }
+        return new StatsRollup(next);
+    }
+
+    /**
+     * Adds to one period's totals. A later period replaces the stored one, an earlier period
+     * is already over and is left out.
+     */
+    private static void addToPeriod(long[] state, int index, long key, long millis, int phases) {
+        if (key > state[index]) {
+            state[index] = key;
+            state[index + 1] = 0;
+            state[index + 2] = 0;
+        }
+        if (key == state[index]) {
+            state[index + 1] += millis;
+            state[index + 2] += phases;
+        }
+    }
+
+    public long getDayMillis(long today) {
+        return state[DAY] == today ? state[DAY_MILLIS] : 0;
+    }
+
+    public int getDayPhases(long today) {
+        return state[DAY] == today ? (int) state[DAY_PHASES] : 0;
+    }
+
+    public long getWeekMillis(long today) {
+        return state[WEEK] == EpochDays.weekStart(today) ? state[WEEK_MILLIS] : 0;
+    }
+
+    public int getWeekPhases(long today) {
+        return state[WEEK] == EpochDays.weekStart(today) ? (int) state[WEEK_PHASES] : 0;
+    }
+
+    public long getMonthMillis(long today) {
+        return state[MONTH] == EpochDays.monthKey(today) ? state[MONTH_MILLIS] : 0;
+    }
+
+    public int getMonthPhases(long today) {
+        return state[MONTH] == EpochDays.monthKey(today) ? (int) state[MONTH_PHASES] : 0;
+    }
+
+    /**
+     * A streak still counts on a day without a session yet, as long as there was one yesterday.
+     *
+     * @param today current epoch day
+     * @return number of consecutive days with a session, ending today or yesterday
+     */
+    public int getStreakDays(long today) {
+        if (state[STREAK_END] < today - 1 || state[STREAK_END] > today) {
+            return 0;
+        }
+        return (int) (state[STREAK_END] - state[STREAK_START] + 1);
+    }
+
+    /**
+     * Writes the totals as a compact string of comma-separated numbers, so they can be stored.
+     *
+     * @return encoded totals, readable by decode
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < STATE_LENGTH; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(state[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads totals written by encode.
+     *
+     * @param encoded encoded totals
+     * @return the decoded totals
+     * @throws IllegalArgumentException if the string is not valid
+     */
+    public static StatsRollup decode(String encoded) {
+        String[] parts = encoded.split(",");
+        if (parts.length != STATE_LENGTH) {
+            throw new IllegalArgumentException("invalid stats rollup: " + encoded);
+        }
+        long[] state = new long[STATE_LENGTH];
+        try {
+            for (int i = 0; i < STATE_LENGTH; i++) {
+                state[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid stats rollup: " + encoded, e);
+        }
+        return new StatsRollup(state);
+    }
+}
@@ -0,0 +1,92 @@
+package com.finalproject.focus;
+
+/**
+ * Token bucket rate limit: up to capacity calls at once, then one more every refillMillis.
+ * <p>
+ * Each call takes a token, and tokens are added back continuously, up to capacity, as time
+ * passes. Times are wall-clock, so the bucket's state can be stored and restored across
+ * restarts; if the clock is set back, no tokens are added until it passes the stored time
+ * again. Not thread-safe.
+ */
+public final class TokenBucket {
+    private final int capacity;
+    private final long refillMillis;
+    private double tokens;
+    private long updatedMillis;
+
+    /**
+     * Makes a full bucket.
+     *
+     * @param capacity     most tokens held, and so the longest burst of calls allowed
+     * @param refillMillis time taken to add back one token
+     */
+    public TokenBucket(int capacity, long refillMillis) {
+        this(capacity, refillMillis, capacity, Long.MIN_VALUE);
+    }
+
+    /**
+     * Restores a stored bucket.
+     *
+     * @param capacity      most tokens held
+     * @param refillMillis  time taken to add back one token
+     * @param tokens        tokens held when stored, as returned by getTokens
+     * @param updatedMillis wall-clock time the tokens were counted at, from getUpdatedMillis
+     */
+    public TokenBucket(int capacity, long refillMillis, double tokens, long updatedMillis) {
+        if (capacity <= 0 || refillMillis <= 0) {
+            throw new IllegalArgumentException("capacity and refill time must be positive");
+        }
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+        this.tokens = Math.max(0, Math.min(capacity, tokens));
+        this.updatedMillis = updatedMillis;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param nowMillis current wall-clock time
+     * @return true if the call may go ahead
+     */
+    public boolean tryAcquire(long nowMillis) {
+        refill(nowMillis);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * @param nowMillis current wall-clock time
+     * @return time until a token is available, or 0 if one is available now
+     */
+    public long millisUntilAvailable(long nowMillis) {
+        refill(nowMillis);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * refillMillis);
+    }
+
+    /**
+     * @return tokens held as of getUpdatedMillis, for storing
+     */
+    public double getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return wall-clock time the tokens were last counted at, for storing
+     */
+    public long getUpdatedMillis() {
+        return updatedMillis;
+    }
+
+    private void refill(long nowMillis) {
+        if (updatedMillis == Long.MIN_VALUE || nowMillis < updatedMillis) {
+            // never used, or the clock was set back: count from now
+            updatedMillis = nowMillis;
+            return;
+        }
+        tokens = Math.min(capacity, tokens + (double) (nowMillis - updatedMillis) / refillMillis);
+        updatedMillis = nowMillis;
+    }
+}
@@ -0,0 +1,67 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class BloomFilterTest {
+    private static final int BITS = 1 << 16;
+    private static final int HASHES = 4;
+
+    @Test
+    public void addedStrings_areAlwaysFound() {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("quote " + i);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.mightContain("quote " + i));
+        }
+    }
+
+    @Test
+    public void falsePositives_stayRare() {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("quote " + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other " + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives + " false positives", falsePositives < 100);
+    }
+
+    @Test
+    public void put_reportsWhetherAlreadyPresent() {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+        assertFalse(filter.put("Well begun is half done."));
+        assertTrue(filter.put("Well begun is half done."));
+    }
+
+    @Test
+    public void filter_roundTrips() throws IOException {
+        BloomFilter filter = new BloomFilter(BITS, HASHES);
+        filter.put("\u201cquoted\u201d");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.write(out);
+        BloomFilter read = BloomFilter.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(BITS, read.getBitCount());
+        // the bits themselves, then a byte each for version and two ints of header
+        assertEquals(BITS / 8 + 9, out.size());
+        assertTrue(read.mightContain("\u201cquoted\u201d"));
+        assertFalse(read.mightContain("unquoted"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bitCount_mustFillWholeWords() {
+        new BloomFilter(100, HASHES);
+    }
+}
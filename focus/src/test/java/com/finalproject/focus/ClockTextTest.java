@@ -0,0 +1,32 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ClockTextTest {
+
+    @Test
+    public void formatsMinutesAndSeconds() {
+        ClockText clock = new ClockText();
+        clock.setSeconds(300);
+        assertEquals("5:00", clock.toString());
+        clock.setSeconds(230);
+        assertEquals("3:50", clock.toString());
+        clock.setSeconds(9);
+        assertEquals("0:09", clock.toString());
+        clock.setSeconds(25 * 60 + 1);
+        assertEquals("25:01", clock.toString());
+    }
+
+    @Test
+    public void reusesBufferAndSkipsUnchangedSeconds() {
+        ClockText clock = new ClockText();
+        char[] buffer = clock.chars();
+        assertTrue(clock.setSeconds(61));
+        assertFalse(clock.setSeconds(61));
+        assertTrue(clock.setSeconds(60));
+        assertSame(buffer, clock.chars());
+        assertEquals(4, clock.length());
+    }
+}
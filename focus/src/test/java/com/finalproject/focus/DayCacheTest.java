@@ -0,0 +1,72 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DayCacheTest {
+
+    private static final long HOUR = 3_600_000;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    @Test
+    public void dayBounds_followDaylightSaving() {
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        DayCache days = new DayCache(newYork);
+        // clocks went forward on 2024-03-10, so that day was 23 hours long
+        long day = EpochDays.ofDate(2024, 3, 10);
+        assertEquals(23 * HOUR, days.startOf(day + 1) - days.startOf(day));
+        assertEquals(day, days.dayOf(days.startOf(day)));
+        assertEquals(day - 1, days.dayOf(days.startOf(day) - 1));
+        assertEquals(days.startOf(day + 1), days.nextDayStart(days.startOf(day) + HOUR));
+    }
+
+    @Test
+    public void skippedMidnight_startsDayAtTransition() {
+        // in 2018, Sao Paulo's clocks went from midnight straight to 1am on November 4th
+        DayCache days = new DayCache(TimeZone.getTimeZone("America/Sao_Paulo"));
+        long day = EpochDays.ofDate(2018, 11, 4);
+        long start = days.startOf(day);
+        assertEquals(day, days.dayOf(start));
+        assertEquals(day - 1, days.dayOf(start - 1));
+    }
+
+    @Test
+    public void split_dividesFocusAtMidnight() {
+        DayCache days = new DayCache(UTC);
+        long day = EpochDays.ofDate(2024, 5, 29);
+        long midnight = (day + 1) * EpochDays.MILLIS_PER_DAY;
+        List<SessionRecord> records = new ArrayList<>();
+        days.split(midnight - 120_000, midnight + 180_000, 1, midnight - 120_000, records);
+        assertEquals(2, records.size());
+        assertEquals(day, records.get(0).getEpochDay());
+        assertEquals(120_000, records.get(0).getFocusMillis());
+        assertEquals(0, records.get(0).getFocusPhases());
+        // the finished phase counts on the day it ended
+        assertEquals(day + 1, records.get(1).getEpochDay());
+        assertEquals(180_000, records.get(1).getFocusMillis());
+        assertEquals(1, records.get(1).getFocusPhases());
+    }
+
+    @Test
+    public void split_mergesPhasesOnSameDay() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(60_000)
+                .shortBreak(60_000)
+                .focus(60_000)
+                .build();
+        long startWall = EpochDays.ofDate(2024, 5, 29) * EpochDays.MILLIS_PER_DAY + HOUR;
+        SessionAnchor anchor = new SessionAnchor(0, startWall, plan, 0);
+        List<SessionRecord> records = anchor.unclaimedFocusRecordsAt(180_000, new DayCache(UTC));
+        assertEquals(1, records.size());
+        assertEquals(120_000, records.get(0).getFocusMillis());
+        assertEquals(2, records.get(0).getFocusPhases());
+        // claimed phases aren't listed again
+        assertTrue(anchor.claimedAt(180_000)
+                .unclaimedFocusRecordsAt(180_000, new DayCache(UTC)).isEmpty());
+    }
+}
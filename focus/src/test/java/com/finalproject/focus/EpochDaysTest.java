@@ -0,0 +1,70 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class EpochDaysTest {
+
+    @Test
+    public void ofDate_matchesCalendar() {
+        assertEquals(0, EpochDays.ofDate(1970, 1, 1));
+        assertEquals(-1, EpochDays.ofDate(1969, 12, 31));
+        // walks every day across several leap years, including 2000 and 2100
+        for (LocalDate date = LocalDate.of(1995, 1, 1); date.getYear() < 2105;
+             date = date.plusDays(1)) {
+            assertEquals(date.toString(), date.toEpochDay(),
+                    EpochDays.ofDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+    }
+
+    @Test
+    public void lengthOfMonth_countsLeapDays() {
+        assertEquals(29, EpochDays.lengthOfMonth(2024, 2));
+        assertEquals(29, EpochDays.lengthOfMonth(2000, 2));
+        assertEquals(28, EpochDays.lengthOfMonth(2100, 2));
+        assertEquals(30, EpochDays.lengthOfMonth(2025, 4));
+        assertEquals(31, EpochDays.lengthOfMonth(2025, 12));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofDate_rejectsLeapDayInCommonYear() {
+        EpochDays.ofDate(2025, 2, 29);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofDate_rejectsDayPastEndOfShortMonth() {
+        EpochDays.ofDate(2025, 4, 31);
+    }
+
+    @Test
+    public void ofWallMillis_usesLocalDay() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        long justAfterMidnightUtc = EpochDays.ofDate(2024, 3, 1) * EpochDays.MILLIS_PER_DAY + 1;
+        assertEquals(EpochDays.ofDate(2024, 3, 1),
+                EpochDays.ofWallMillis(justAfterMidnightUtc, utc));
+        // still the previous evening in New York
+        assertEquals(EpochDays.ofDate(2024, 2, 29),
+                EpochDays.ofWallMillis(justAfterMidnightUtc, newYork));
+        assertEquals(-1, EpochDays.ofWallMillis(-1, utc));
+    }
+
+    @Test
+    public void weekAndMonth_matchCalendar() {
+        for (LocalDate date = LocalDate.of(1999, 1, 1); date.getYear() < 2030;
+             date = date.plusDays(1)) {
+            long day = date.toEpochDay();
+            assertEquals(date.toString(), date.getYear() * 12L + date.getMonthValue() - 1,
+                    EpochDays.monthKey(day));
+            assertEquals(date.toString(), date.minusDays(date.getDayOfWeek().getValue() - 1)
+                    .toEpochDay(), EpochDays.weekStart(day));
+            assertEquals(date.toString(), date.getYear(), EpochDays.yearOf(day));
+            assertEquals(date.toString(), EpochDays.format(day));
+            assertEquals(day, EpochDays.parse(date.toString()));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class EventBusTest {
+
+    @Test
+    public void events_reachSubscribersOfTheirClassOnly() {
+        EventBus bus = new EventBus();
+        List<Object> received = new ArrayList<>();
+        bus.subscribe(String.class, received::add);
+        bus.post("hello");
+        bus.post(42);
+        assertEquals(1, received.size());
+        assertEquals("hello", received.get(0));
+    }
+
+    @Test
+    public void cancelledSubscription_receivesNothing() {
+        EventBus bus = new EventBus();
+        AtomicInteger count = new AtomicInteger();
+        EventBus.Subscription subscription =
+                bus.subscribe(String.class, e -> count.incrementAndGet());
+        bus.post("one");
+        subscription.cancel();
+        subscription.cancel();
+        bus.post("two");
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void onceEvent_isHandledByOneSubscriber() {
+        EventBus bus = new EventBus();
+        AtomicInteger handled = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            bus.subscribe(SessionCompleted.class, e -> {
+                if (e.claim()) {
+                    handled.incrementAndGet();
+                }
+            });
+        }
+        bus.post(new SessionCompleted(0));
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    public void unclaimedOnceEvent_waitsForNextSubscriber() {
+        EventBus bus = new EventBus();
+        // posted while nothing is subscribed, for example during a configuration change
+        bus.post(new SessionCompleted(2));
+        List<Integer> phases = new ArrayList<>();
+        EventBus.Subscriber<SessionCompleted> handler = e -> {
+            if (e.claim()) {
+                phases.add(e.getPhase());
+            }
+        };
+        bus.subscribe(SessionCompleted.class, handler);
+        bus.subscribe(SessionCompleted.class, handler);
+        assertEquals(1, phases.size());
+        assertEquals(2, (int) phases.get(0));
+
+        // a subscriber that doesn't claim leaves it for the next one
+        bus.discardUnclaimed(SessionCompleted.class);
+        EventBus other = new EventBus();
+        other.subscribe(SessionCompleted.class, e -> { });
+        other.post(new SessionCompleted(5));
+        other.subscribe(SessionCompleted.class, handler);
+        assertEquals(5, (int) phases.get(1));
+    }
+
+    @Test
+    public void concurrentPostsAndSubscribers_handleEachEventOnce() throws InterruptedException {
+        EventBus bus = new EventBus();
+        AtomicInteger handled = new AtomicInteger();
+        int events = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread poster = new Thread(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < events; i++) {
+                bus.post(new SessionCompleted(i));
+            }
+        });
+        Thread subscriber = new Thread(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < 200; i++) {
+                bus.subscribe(SessionCompleted.class, e -> {
+                    if (e.claim()) {
+                        handled.incrementAndGet();
+                    }
+                }).cancel();
+            }
+            bus.subscribe(SessionCompleted.class, e -> {
+                if (e.claim()) {
+                    handled.incrementAndGet();
+                }
+            });
+        });
+        poster.start();
+        subscriber.start();
+        start.countDown();
+        poster.join();
+        subscriber.join();
+        // events posted before the last subscriber may have been replaced while held,
+        // but none is ever handled twice
+        assertTrue(handled.get() <= events);
+        bus.post(new SessionCompleted(-1));
+        int before = handled.get();
+        bus.post(new SessionCompleted(-2));
+        assertEquals(before + 1, handled.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
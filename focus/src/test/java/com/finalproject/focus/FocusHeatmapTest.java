@@ -0,0 +1,59 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FocusHeatmapTest {
+
+    @Test
+    public void levels_roundTripForEveryDayOfLeapYear() {
+        FocusHeatmap heatmap = FocusHeatmap.EMPTY;
+        long start = EpochDays.ofDate(2024, 1, 1);
+        for (int i = 0; i < 366; i++) {
+            heatmap = heatmap.withLevel(start + i, i % 4);
+        }
+        for (int i = 0; i < 366; i++) {
+            assertEquals(i % 4, heatmap.getLevel(start + i));
+        }
+        // neighbouring years are untouched
+        assertEquals(0, heatmap.getLevel(start - 1));
+        assertEquals(0, heatmap.getLevel(start + 366));
+        assertEquals(1, heatmap.getYearCount());
+    }
+
+    @Test
+    public void withLevel_copiesOnlyChangedYear() {
+        long day2023 = EpochDays.ofDate(2023, 6, 1);
+        long day2024 = EpochDays.ofDate(2024, 6, 1);
+        FocusHeatmap before = FocusHeatmap.EMPTY.withLevel(day2023, 2).withLevel(day2024, 1);
+        FocusHeatmap after = before.withLevel(day2024 + 1, 3);
+
+        assertTrue(after.sharesYear(before, 2023));
+        assertFalse(after.sharesYear(before, 2024));
+        assertEquals(1, after.getLevel(day2024));
+        assertEquals(0, before.getLevel(day2024 + 1));
+        // setting a level that's already there changes nothing
+        assertSame(after, after.withLevel(day2023, 2));
+    }
+
+    @Test
+    public void yearsAddedOutOfOrder_areFound() {
+        FocusHeatmap heatmap = FocusHeatmap.EMPTY
+                .withLevel(EpochDays.ofDate(2030, 12, 31), 3)
+                .withLevel(EpochDays.ofDate(1999, 1, 1), 1)
+                .withLevel(EpochDays.ofDate(2015, 7, 4), 2);
+        assertEquals(3, heatmap.getYearCount());
+        assertEquals(3, heatmap.getLevel(EpochDays.ofDate(2030, 12, 31)));
+        assertEquals(1, heatmap.getLevel(EpochDays.ofDate(1999, 1, 1)));
+        assertEquals(2, heatmap.getLevel(EpochDays.ofDate(2015, 7, 4)));
+    }
+
+    @Test
+    public void levelOf_groupsSessionCounts() {
+        assertEquals(0, FocusHeatmap.levelOf(0));
+        assertEquals(1, FocusHeatmap.levelOf(1));
+        assertEquals(2, FocusHeatmap.levelOf(3));
+        assertEquals(FocusHeatmap.MAX_LEVEL, FocusHeatmap.levelOf(12));
+    }
+}
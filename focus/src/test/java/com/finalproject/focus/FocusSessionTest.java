@@ -0,0 +1,142 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FocusSessionTest {
+
+    private static final long DURATION = 300_000;
+
+    /**
+     * Records every event delivered by the session, in order.
+     */
+    private static class RecordingListener implements FocusSession.Listener {
+        final List<String> events = new ArrayList<>();
+        int lastPhase = -1;
+        long lastRemaining = -1;
+
+        @Override
+        public void onTick(int phase, long remainingMillis) {
+            lastPhase = phase;
+            lastRemaining = remainingMillis;
+        }
+
+        @Override
+        public void onStage(int phase, int stage) {
+            events.add("stage" + stage);
+        }
+
+        @Override
+        public void onPhaseFinish(int phase, SessionPlan.PhaseType type) {
+            events.add(type + "" + phase);
+        }
+
+        @Override
+        public void onFinish() {
+            events.add("finish");
+        }
+    }
+
+    @Test
+    public void regularTicks_deliverEachMilestoneOnce() {
+        RecordingListener listener = new RecordingListener();
+        FocusSession session = new FocusSession(SessionPlan.CLASSIC, listener);
+        session.start(1_000);
+        for (long now = 1_000; now <= 1_000 + DURATION + 5_000; now += 1_000) {
+            session.update(now);
+        }
+        assertEquals(Arrays.asList("stage1", "stage2", "stage3", "FOCUS0", "finish"),
+                listener.events);
+        assertEquals(0, listener.lastRemaining);
+        assertTrue(session.isFinished());
+    }
+
+    @Test
+    public void missedTicks_catchUpInOrder() {
+        RecordingListener listener = new RecordingListener();
+        FocusSession session = new FocusSession(SessionPlan.CLASSIC, listener);
+        session.start(0);
+        session.update(10_000);
+        // the device was busy, so the next update arrives long after two milestones
+        session.update(200_000);
+        assertEquals(Arrays.asList("stage1", "stage2"), listener.events);
+        assertEquals(100_000, listener.lastRemaining);
+        // a single late update past the deadline still finishes the session
+        session.update(DURATION + 60_000);
+        assertEquals(Arrays.asList("stage1", "stage2", "stage3", "FOCUS0", "finish"),
+                listener.events);
+    }
+
+    @Test
+    public void updatesAfterFinish_deliverNothing() {
+        RecordingListener listener = new RecordingListener();
+        FocusSession session = new FocusSession(SessionPlan.CLASSIC, listener);
+        session.start(0);
+        session.update(DURATION);
+        session.update(DURATION + 1_000);
+        session.update(DURATION + 2_000);
+        assertEquals(1, listener.events.stream().filter("finish"::equals).count());
+    }
+
+    @Test
+    public void cancel_stopsEvents() {
+        RecordingListener listener = new RecordingListener();
+        FocusSession session = new FocusSession(SessionPlan.CLASSIC, listener);
+        session.start(0);
+        session.cancel();
+        session.update(DURATION);
+        assertTrue(listener.events.isEmpty());
+        assertFalse(session.isRunning());
+    }
+
+    @Test
+    public void multiPhasePlan_countsDownEachPhase() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(60_000, 30_000)
+                .shortBreak(10_000)
+                .focus(60_000)
+                .build();
+        RecordingListener listener = new RecordingListener();
+        FocusSession session = new FocusSession(plan, listener);
+        session.start(0);
+        session.update(65_000);
+        assertEquals(1, listener.lastPhase);
+        assertEquals(5_000, listener.lastRemaining);
+        session.update(130_000);
+        assertEquals(Arrays.asList("stage1", "FOCUS0", "BREAK1", "FOCUS2", "finish"),
+                listener.events);
+    }
+
+    @Test
+    public void nextMilestone_comesFromPlan() {
+        FocusSession session = new FocusSession(SessionPlan.CLASSIC, new RecordingListener());
+        session.start(0);
+        assertEquals(70_000, session.millisUntilNextMilestone(0));
+        session.update(100_000);
+        assertEquals(80_000, session.millisUntilNextMilestone(100_000));
+        session.update(280_000);
+        // only the phase end is left
+        assertEquals(20_000, session.millisUntilNextMilestone(280_000));
+    }
+
+    @Test
+    public void displaySeconds_roundUp() {
+        assertEquals(300, FocusSession.toDisplaySeconds(300_000));
+        assertEquals(300, FocusSession.toDisplaySeconds(299_001));
+        assertEquals(1, FocusSession.toDisplaySeconds(1));
+        assertEquals(0, FocusSession.toDisplaySeconds(0));
+    }
+
+    @Test
+    public void nextSecond_alignsToDeadline() {
+        FocusSession session = new FocusSession(SessionPlan.CLASSIC, new RecordingListener());
+        session.start(0);
+        assertEquals(1_000, session.millisUntilNextSecond(0));
+        assertEquals(750, session.millisUntilNextSecond(250));
+    }
+}
@@ -0,0 +1,83 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QuoteCorpusTest {
+
+    @Test
+    public void quotes_areReadBackByIndex() throws IOException {
+        List<Quote> quotes = Arrays.asList(
+                new Quote("Well begun is half done.", "Aristotle"),
+                new Quote("\u201cQuoted\u201d \u2014 caf\u00e9", "\u00c9mile"),
+                new Quote("No author", ""));
+        QuoteCorpus corpus = new QuoteCorpus(ByteBuffer.wrap(pack(quotes)));
+
+        assertEquals(3, corpus.size());
+        assertEquals(quotes.get(2), corpus.get(2));
+        assertEquals(quotes.get(0), corpus.get(0));
+        assertEquals(quotes.get(1), corpus.get(1));
+    }
+
+    @Test
+    public void mappedFile_isReadInPlace() throws IOException {
+        File file = File.createTempFile("quotes", ".bin");
+        file.deleteOnExit();
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.write(pack(Collections.singletonList(new Quote("Mapped", "Author"))));
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            MappedByteBuffer mapped =
+                    in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+            QuoteCorpus corpus = new QuoteCorpus(mapped);
+            assertEquals(new Quote("Mapped", "Author"), corpus.get(0));
+        }
+    }
+
+    @Test
+    public void bundledCorpus_isValid() throws IOException {
+        File asset = new File("../app/src/main/assets/quotes.bin");
+        try (RandomAccessFile in = new RandomAccessFile(asset, "r")) {
+            QuoteCorpus corpus = new QuoteCorpus(
+                    in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length()));
+            assertTrue(corpus.size() > 100);
+            for (int i = 0; i < corpus.size(); i++) {
+                assertFalse(corpus.get(i).getText().isEmpty());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherFiles_areRejected() {
+        new QuoteCorpus(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedCorpus_isRejected() throws IOException {
+        byte[] bytes = pack(Collections.singletonList(new Quote("Cut short", "Author")));
+        new QuoteCorpus(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tabs_cantBePacked() throws IOException {
+        pack(Collections.singletonList(new Quote("a\tb", "Author")));
+    }
+
+    private static byte[] pack(List<Quote> quotes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QuoteCorpus.write(quotes, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,69 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class QuoteRingTest {
+
+    @Test
+    public void quotes_comeOutInOrderAddedAcrossTheWrap() {
+        QuoteRing ring = new QuoteRing(3);
+        assertTrue(ring.offer(quote(1)));
+        assertTrue(ring.offer(quote(2)));
+        assertEquals(quote(1), ring.poll());
+        assertTrue(ring.offer(quote(3)));
+        assertTrue(ring.offer(quote(4)));
+
+        assertEquals(Arrays.asList(quote(2), quote(3), quote(4)), ring.toList());
+        assertEquals(quote(2), ring.poll());
+        assertEquals(quote(3), ring.poll());
+        assertEquals(quote(4), ring.poll());
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void fullRing_refusesMore() {
+        QuoteRing ring = new QuoteRing(2);
+        ring.offer(quote(1));
+        ring.offer(quote(2));
+
+        assertFalse(ring.offer(quote(3)));
+        assertEquals(Arrays.asList(quote(1), quote(2)), ring.toList());
+    }
+
+    @Test
+    public void waitingQuotes_roundTrip() throws IOException {
+        QuoteRing ring = new QuoteRing(4);
+        for (int i = 1; i <= 4; i++) {
+            ring.offer(quote(i));
+        }
+        ring.poll();
+        ring.offer(new Quote("\u00dcn\u00efcode \u2014 \u201cquoted\u201d", ""));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QuoteRing.write(ring.toList(), out);
+        QuoteRing read = QuoteRing.read(new ByteArrayInputStream(out.toByteArray()), 4);
+
+        assertEquals(ring.toList(), read.toList());
+    }
+
+    @Test
+    public void smallerCapacity_dropsNewestQuotes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QuoteRing.write(Arrays.asList(quote(1), quote(2), quote(3)), out);
+        QuoteRing read = QuoteRing.read(new ByteArrayInputStream(out.toByteArray()), 2);
+
+        assertEquals(Arrays.asList(quote(1), quote(2)), read.toList());
+    }
+
+    private static Quote quote(int i) {
+        return new Quote("Quote " + i, "Author " + i);
+    }
+}
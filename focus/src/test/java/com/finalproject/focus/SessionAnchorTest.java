@@ -0,0 +1,64 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionAnchorTest {
+
+    @Test
+    public void claims_areCountedOnce() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(60_000)
+                .shortBreak(10_000)
+                .focus(60_000)
+                .build();
+        SessionAnchor anchor = new SessionAnchor(1_000, 0, plan, 0);
+        assertEquals(0, anchor.unclaimedFocusPhasesAt(30_000));
+        assertEquals(1, anchor.unclaimedFocusPhasesAt(61_000));
+        assertEquals(60_000, anchor.unclaimedFocusMillisAt(61_000));
+
+        SessionAnchor claimed = anchor.claimedAt(61_000);
+        assertEquals(0, claimed.unclaimedFocusPhasesAt(61_000));
+        assertEquals(1, claimed.unclaimedFocusPhasesAt(anchor.getDeadlineElapsedMillis()));
+        assertTrue(claimed.isCompleteAt(131_000));
+    }
+
+    @Test
+    public void position_followsPhasesAndStages() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(60_000, 20_000, 40_000)
+                .shortBreak(10_000)
+                .build();
+        SessionAnchor anchor = new SessionAnchor(1_000, 0, plan, 0);
+        assertEquals(0, anchor.phaseAt(1_000));
+        assertEquals(0, anchor.stagesReachedAt(1_000));
+        assertEquals(61_000, anchor.getPhaseEndElapsedMillisAt(1_000));
+        assertEquals(2, anchor.stagesReachedAt(45_000));
+        // a phase that ends exactly now is over
+        assertEquals(1, anchor.phaseAt(61_000));
+        assertEquals(0, anchor.stagesReachedAt(61_000));
+        assertEquals(71_000, anchor.getPhaseEndElapsedMillisAt(61_000));
+        assertEquals(anchor.getDeadlineElapsedMillis(), anchor.getPhaseEndElapsedMillisAt(90_000));
+    }
+
+    @Test
+    public void rebase_keepsWallClockPosition() {
+        SessionAnchor anchor = new SessionAnchor(500_000, 10_000_000, SessionPlan.CLASSIC, 0);
+        // after a reboot the monotonic clock has restarted near zero
+        SessionAnchor rebased = anchor.rebasedAt(20_000, 10_100_000);
+        assertEquals(-80_000, rebased.getStartElapsedMillis());
+        assertEquals(2, rebased.milestonesReachedAt(20_000 + 80_000));
+    }
+
+    @Test
+    public void plan_survivesEncoding() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .cycles(3, 25 * 60_000, 2, 5 * 60_000, 15 * 60_000, 2)
+                .build();
+        SessionPlan decoded = SessionPlan.decode(plan.encode());
+        assertEquals(plan.encode(), decoded.encode());
+        assertEquals(plan.getMilestoneCount(), decoded.getMilestoneCount());
+        assertEquals("F:300000:70000,180000,270000", SessionPlan.CLASSIC.encode());
+    }
+}
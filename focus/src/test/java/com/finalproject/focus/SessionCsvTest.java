@@ -0,0 +1,35 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class SessionCsvTest {
+
+    @Test
+    public void row_roundTrips() throws IOException {
+        SessionRecord record =
+                new SessionRecord(EpochDays.ofDate(2024, 5, 1), 1_714_550_400_000L, 300_000, 1);
+        StringBuilder out = new StringBuilder();
+        SessionCsv.writeRow(out, record);
+        assertEquals("2024-05-01,1714550400000,300000,1\n", out.toString());
+
+        SessionRecord parsed = SessionCsv.parseRow(out.toString());
+        assertEquals(record.getEpochDay(), parsed.getEpochDay());
+        assertEquals(record.getStartWallMillis(), parsed.getStartWallMillis());
+        assertEquals(record.getFocusMillis(), parsed.getFocusMillis());
+        assertEquals(record.getFocusPhases(), parsed.getFocusPhases());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingField_isRejected() {
+        SessionCsv.parseRow("2024-05-01,0,300000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDate_isRejected() {
+        SessionCsv.parseRow("2024-13-01,0,300000,1");
+    }
+}
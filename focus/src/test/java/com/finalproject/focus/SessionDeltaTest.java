@@ -0,0 +1,83 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SessionDeltaTest {
+
+    @Test
+    public void sessions_roundTrip() throws IOException {
+        List<SessionRecord> records = Arrays.asList(
+                new SessionRecord(EpochDays.ofDate(2024, 3, 7), 0, 900_000, 3),
+                new SessionRecord(EpochDays.ofDate(2024, 3, 8), 1_709_900_000_000L, 300_000, 1),
+                // out of order, and longer then shorter, so differences are negative
+                new SessionRecord(EpochDays.ofDate(2024, 3, 6), 1_709_700_000_000L, 1_500_000, 2),
+                new SessionRecord(EpochDays.ofDate(1969, 12, 31), -5_000, 0, 0));
+        List<SessionRecord> read = readAll(write(records));
+
+        assertEquals(records.size(), read.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(records.get(i).getEpochDay(), read.get(i).getEpochDay());
+            assertEquals(records.get(i).getStartWallMillis(), read.get(i).getStartWallMillis());
+            assertEquals(records.get(i).getFocusMillis(), read.get(i).getFocusMillis());
+            assertEquals(records.get(i).getFocusPhases(), read.get(i).getFocusPhases());
+        }
+    }
+
+    @Test
+    public void typicalSessions_takeFewBytes() throws IOException {
+        List<SessionRecord> records = new ArrayList<>();
+        long day = EpochDays.ofDate(2024, 1, 1);
+        long start = day * EpochDays.MILLIS_PER_DAY;
+        for (int i = 0; i < 1_000; i++) {
+            // a few five-minute sessions a day, a quarter of an hour apart
+            records.add(new SessionRecord(day + i / 4, start + i * 900_000L, 300_000, 1));
+        }
+        byte[] bytes = write(records);
+        assertTrue("took " + bytes.length + " bytes", bytes.length < 8 * records.size());
+        assertEquals(records.size(), readAll(bytes).size());
+    }
+
+    @Test
+    public void zigzag_keepsSmallValuesSmall() {
+        assertEquals(0, SessionDelta.zigzag(0));
+        assertEquals(1, SessionDelta.zigzag(-1));
+        assertEquals(2, SessionDelta.zigzag(1));
+        for (long value : new long[]{Long.MIN_VALUE, -300_000, 42, Long.MAX_VALUE}) {
+            assertEquals(value, SessionDelta.unzigzag(SessionDelta.zigzag(value)));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedSession_isRejected() throws IOException {
+        byte[] bytes = write(Arrays.asList(new SessionRecord(20_000, 1_000_000, 300_000, 1)));
+        readAll(Arrays.copyOf(bytes, bytes.length - 2));
+    }
+
+    private static byte[] write(List<SessionRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SessionDelta.Writer writer = new SessionDelta.Writer(out);
+        for (SessionRecord record : records) {
+            writer.write(record);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<SessionRecord> readAll(byte[] bytes) throws IOException {
+        SessionDelta.Reader reader = new SessionDelta.Reader(new ByteArrayInputStream(bytes));
+        List<SessionRecord> records = new ArrayList<>();
+        for (SessionRecord record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
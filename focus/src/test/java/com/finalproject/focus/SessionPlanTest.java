@@ -0,0 +1,54 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionPlanTest {
+
+    @Test
+    public void classicPlan_matchesOriginalGrowthTimes() {
+        SessionPlan plan = SessionPlan.CLASSIC;
+        assertEquals(300_000, plan.getTotalMillis());
+        assertEquals(4, plan.getMilestoneCount());
+        assertEquals(70_000, plan.getMilestoneOffset(0));
+        assertEquals(180_000, plan.getMilestoneOffset(1));
+        assertEquals(270_000, plan.getMilestoneOffset(2));
+        assertEquals(SessionPlan.PHASE_END, plan.getMilestoneKind(3));
+    }
+
+    @Test
+    public void cycles_insertLongBreaks() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .cycles(4, 25 * 60_000, 3, 5 * 60_000, 15 * 60_000, 2)
+                .build();
+        assertEquals(7, plan.getPhaseCount());
+        assertEquals(SessionPlan.PhaseType.BREAK, plan.getPhaseType(1));
+        assertEquals(SessionPlan.PhaseType.LONG_BREAK, plan.getPhaseType(3));
+        assertEquals(SessionPlan.PhaseType.FOCUS, plan.getPhaseType(6));
+        assertEquals(100 * 60_000, plan.getFocusMillis());
+        // three stages plus a phase end per focus phase, one phase end per break
+        assertEquals(4 * 4 + 3, plan.getMilestoneCount());
+    }
+
+    @Test
+    public void lookups_useBinarySearch() {
+        SessionPlan plan = new SessionPlan.Builder()
+                .focus(60_000, 20_000, 60_000)
+                .shortBreak(10_000)
+                .build();
+        assertEquals(0, plan.phaseAt(0));
+        assertEquals(1, plan.phaseAt(60_000));
+        assertEquals(1, plan.phaseAt(1_000_000));
+        assertEquals(0, plan.milestonesReachedAt(19_999));
+        assertEquals(1, plan.milestonesReachedAt(20_000));
+        // the last stage shares its offset with the phase end
+        assertEquals(3, plan.milestonesReachedAt(60_000));
+        assertEquals(4, plan.milestonesReachedAt(70_000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stagesOutsidePhase_areRejected() {
+        new SessionPlan.Builder().focus(10_000, 20_000);
+    }
+}
@@ -0,0 +1,36 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionStateTest {
+
+    @Test
+    public void idle_showsFirstPhase() {
+        SessionState idle = SessionState.idle(SessionPlan.CLASSIC);
+        assertFalse(idle.isRunning());
+        assertEquals(0, idle.getPhase());
+        assertEquals(0, idle.getStage());
+        assertEquals(3, idle.getStageCount());
+    }
+
+    @Test
+    public void equalSnapshots_compareEqual() {
+        SessionState a = new SessionState(true, 0, SessionPlan.PhaseType.FOCUS, 1, 3);
+        SessionState b = new SessionState(true, 0, SessionPlan.PhaseType.FOCUS, 1, 3);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        // a single field changing is enough for a new emission
+        assertNotEquals(a, new SessionState(true, 0, SessionPlan.PhaseType.FOCUS, 2, 3));
+        assertNotEquals(a, new SessionState(false, 0, SessionPlan.PhaseType.FOCUS, 1, 3));
+    }
+
+    @Test
+    public void matches_comparesWithoutBuildingASnapshot() {
+        SessionState a = new SessionState(true, 1, SessionPlan.PhaseType.BREAK, 0, 1);
+        assertTrue(a.matches(true, 1, SessionPlan.PhaseType.BREAK, 0, 1));
+        assertFalse(a.matches(true, 1, SessionPlan.PhaseType.BREAK, 1, 1));
+        assertFalse(a.matches(true, 2, SessionPlan.PhaseType.FOCUS, 0, 1));
+    }
+}
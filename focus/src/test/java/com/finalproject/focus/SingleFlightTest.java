@@ -0,0 +1,50 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void concurrentCallers_shareOneResult() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        List<String> results = new ArrayList<>();
+
+        assertTrue(flight.join("a", results::add));
+        assertFalse(flight.join("a", results::add));
+        assertTrue(flight.isInFlight("a"));
+        flight.complete("a", "result");
+
+        assertEquals(Arrays.asList("result", "result"), results);
+        assertFalse(flight.isInFlight("a"));
+    }
+
+    @Test
+    public void keys_areIndependent() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        List<Integer> results = new ArrayList<>();
+
+        assertTrue(flight.join("a", results::add));
+        assertTrue(flight.join("b", results::add));
+        flight.complete("b", 2);
+
+        assertEquals(Arrays.asList(2), results);
+        assertTrue(flight.isInFlight("a"));
+    }
+
+    @Test
+    public void callerJoiningFromCallback_startsAfresh() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        boolean[] startedAgain = new boolean[1];
+
+        flight.join("a", result -> startedAgain[0] = flight.join("a", again -> { }));
+        flight.complete("a", "result");
+
+        assertTrue(startedAgain[0]);
+    }
+}
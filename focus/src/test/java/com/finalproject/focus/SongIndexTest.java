@@ -0,0 +1,71 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+public class SongIndexTest {
+    private static final SongIndex INDEX = new SongIndex.Builder()
+            .add(0, "Farm", "Contemporary")
+            .add(1, "Late Night Radio", "Contemporary")
+            .add(2, "Cloud Dancer", "Electronica")
+            .add(3, "Newer Wave", "Electronica")
+            .add(4, "Past Sadness", "Jazz")
+            .add(5, "Paradise Found", "World")
+            .build();
+
+    @Test
+    public void prefix_matchesStartOfNameOrAnyWord() {
+        assertEquals(bits(4, 5), INDEX.query("pa", null));
+        assertEquals(bits(1), INDEX.query("night", null));
+        assertEquals(bits(1), INDEX.query("  NIGHT   ra ", null));
+        assertEquals(bits(2), INDEX.query("dancer", null));
+        assertEquals(bits(), INDEX.query("ancer", null));
+        assertEquals(bits(), INDEX.query("zzz", null));
+    }
+
+    @Test
+    public void emptyPrefix_matchesEverySong() {
+        assertEquals(bits(0, 1, 2, 3, 4, 5), INDEX.query("", null));
+    }
+
+    @Test
+    public void genre_narrowsTheMatches() {
+        assertEquals(bits(2, 3), INDEX.query("", "Electronica"));
+        assertEquals(bits(1), INDEX.query("l", "Contemporary"));
+        assertEquals(bits(), INDEX.query("pa", "Electronica"));
+        assertEquals(bits(), INDEX.query("", "Polka"));
+    }
+
+    @Test
+    public void genres_keepCatalogOrder() {
+        assertEquals(Arrays.asList("Contemporary", "Electronica", "Jazz", "World"),
+                INDEX.getGenres());
+        assertEquals(6, INDEX.size());
+    }
+
+    @Test
+    public void results_areCopies() {
+        INDEX.query("", null).clear();
+        assertEquals(bits(2, 3), INDEX.query("", "Electronica"));
+        INDEX.query("", "Electronica").clear();
+        assertEquals(bits(2, 3), INDEX.query("", "Electronica"));
+    }
+
+    @Test
+    public void emptyIndex_matchesNothing() {
+        assertEquals(bits(), SongIndex.EMPTY.query("", null));
+        assertEquals(0, SongIndex.EMPTY.getGenres().size());
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}
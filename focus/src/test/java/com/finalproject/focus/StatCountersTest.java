@@ -0,0 +1,172 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class StatCountersTest {
+
+    private static final long DAY = 19_800;
+    private static final StatCounters.FlushPolicy COALESCING =
+            new StatCounters.FlushPolicy(5, 1_000);
+
+    /**
+     * Stores whatever was last written, standing in for durable storage.
+     */
+    private static class RecordingSink implements StatCounters.Sink {
+        final List<StatCounters.Counts> writes = new ArrayList<>();
+
+        @Override
+        public synchronized void write(StatCounters.Counts counts) {
+            writes.add(counts);
+        }
+
+        synchronized StatCounters.Counts stored() {
+            return writes.isEmpty() ? StatCounters.Counts.NONE : writes.get(writes.size() - 1);
+        }
+    }
+
+    /**
+     * Holds scheduled flushes until the test runs them.
+     */
+    private static class ManualScheduler implements StatCounters.Scheduler {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public synchronized void schedule(Runnable task, long delayMillis) {
+            tasks.add(task);
+            delays.add(delayMillis);
+        }
+
+        synchronized void runAll() {
+            List<Runnable> due = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : due) {
+                task.run();
+            }
+        }
+    }
+
+    @Test
+    public void burst_isWrittenOnce() {
+        RecordingSink sink = new RecordingSink();
+        ManualScheduler scheduler = new ManualScheduler();
+        StatCounters counters = new StatCounters(StatCounters.Counts.NONE, COALESCING, sink,
+                scheduler);
+        for (int i = 0; i < 3; i++) {
+            counters.add(DAY, 60_000, 1);
+        }
+        // one delayed flush for the whole burst
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(Long.valueOf(1_000), scheduler.delays.get(0));
+        scheduler.runAll();
+        assertEquals(1, sink.writes.size());
+        assertEquals(3, sink.stored().getFocusPhases(DAY));
+        assertEquals(180_000, sink.stored().getFocusMillis(DAY));
+    }
+
+    @Test
+    public void fullBatch_isWrittenStraightAway() {
+        RecordingSink sink = new RecordingSink();
+        ManualScheduler scheduler = new ManualScheduler();
+        StatCounters counters = new StatCounters(StatCounters.Counts.NONE, COALESCING, sink,
+                scheduler);
+        for (int i = 0; i < 5; i++) {
+            counters.add(DAY, 60_000, 1);
+        }
+        assertEquals(Long.valueOf(0), scheduler.delays.get(scheduler.delays.size() - 1));
+        scheduler.runAll();
+        // the delayed flush finds nothing left to write
+        assertEquals(1, sink.writes.size());
+        assertEquals(5, sink.stored().getFocusPhases(DAY));
+    }
+
+    @Test
+    public void crashBeforeFlush_losesOnlyPendingUpdates() {
+        RecordingSink sink = new RecordingSink();
+        ManualScheduler scheduler = new ManualScheduler();
+        StatCounters counters = new StatCounters(StatCounters.Counts.NONE, COALESCING, sink,
+                scheduler);
+        counters.add(DAY, 60_000, 1);
+        counters.add(DAY, 60_000, 1);
+        scheduler.runAll();
+        counters.add(DAY, 60_000, 1);
+        // the process dies here: the scheduled flush never runs
+
+        StatCounters restarted = new StatCounters(sink.stored(), COALESCING, sink,
+                new ManualScheduler());
+        assertEquals(2, restarted.get().getFocusPhases(DAY));
+        // the sequence carries on from what was stored, so later writes are never older
+        StatCounters.Counts next = restarted.add(DAY, 60_000, 1);
+        assertEquals(3, next.getSequence());
+        assertEquals(3, next.getFocusPhases(DAY));
+    }
+
+    @Test
+    public void everyUpdatePolicy_losesNothing() {
+        RecordingSink sink = new RecordingSink();
+        ManualScheduler scheduler = new ManualScheduler();
+        StatCounters counters = new StatCounters(StatCounters.Counts.NONE,
+                StatCounters.FlushPolicy.EVERY_UPDATE, sink, scheduler);
+        for (int i = 0; i < 3; i++) {
+            counters.add(DAY, 60_000, 1);
+            scheduler.runAll();
+            // after each flush, a crash would keep every update made so far
+            assertEquals(i + 1, sink.stored().getFocusPhases(DAY));
+        }
+    }
+
+    @Test
+    public void newDay_startsFromZero() {
+        StatCounters counters = new StatCounters(StatCounters.Counts.NONE, COALESCING,
+                new RecordingSink(), new ManualScheduler());
+        counters.add(DAY, 60_000, 1);
+        counters.add(DAY + 1, 30_000, 1);
+        assertEquals(1, counters.get().getFocusPhases(DAY + 1));
+        assertEquals(0, counters.get().getFocusPhases(DAY));
+        // an update for an earlier day doesn't replace today's counts
+        counters.add(DAY, 60_000, 1);
+        assertEquals(30_000, counters.get().getFocusMillis(DAY + 1));
+    }
+
+    @Test
+    public void concurrentUpdates_areAllCounted() throws InterruptedException {
+        RecordingSink sink = new RecordingSink();
+        StatCounters counters = new StatCounters(StatCounters.Counts.NONE, COALESCING, sink,
+                (task, delayMillis) -> task.run());
+        int threads = 8;
+        int updates = 1_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < updates; i++) {
+                    counters.add(DAY, 1, 1);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        counters.flush();
+        assertEquals(threads * updates, counters.get().getFocusPhases(DAY));
+        assertEquals(threads * updates, sink.stored().getFocusMillis(DAY));
+        // writes are never replaced by older ones
+        for (int i = 1; i < sink.writes.size(); i++) {
+            assertTrue(sink.writes.get(i).getSequence() > sink.writes.get(i - 1).getSequence());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StatsRollupTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    public void sessions_addUpPerPeriod() {
+        // Wednesday 2024-05-29
+        long wednesday = EpochDays.ofDate(2024, 5, 29);
+        StatsRollup rollup = StatsRollup.EMPTY
+                .plus(EpochDays.ofDate(2024, 5, 20), 5 * MINUTE, 1)
+                .plus(wednesday - 1, 10 * MINUTE, 2)
+                .plus(wednesday, 5 * MINUTE, 1)
+                .plus(wednesday, 5 * MINUTE, 1);
+        assertEquals(10 * MINUTE, rollup.getDayMillis(wednesday));
+        assertEquals(2, rollup.getDayPhases(wednesday));
+        // the week started on Monday the 27th, so the 20th is left out
+        assertEquals(4, rollup.getWeekPhases(wednesday));
+        assertEquals(5, rollup.getMonthPhases(wednesday));
+        assertEquals(25 * MINUTE, rollup.getMonthMillis(wednesday));
+        assertEquals(2, rollup.getStreakDays(wednesday));
+    }
+
+    @Test
+    public void periods_rollOver() {
+        long lastDayOfMonth = EpochDays.ofDate(2024, 5, 31);
+        StatsRollup rollup = StatsRollup.EMPTY.plus(lastDayOfMonth, 5 * MINUTE, 1);
+        long nextDay = lastDayOfMonth + 1;
+        assertEquals(0, rollup.getDayPhases(nextDay));
+        assertEquals(0, rollup.getMonthPhases(nextDay));
+        // still the same week, and the streak survives until a day is missed
+        assertEquals(1, rollup.getWeekPhases(nextDay));
+        assertEquals(1, rollup.getStreakDays(nextDay));
+        assertEquals(0, rollup.getStreakDays(nextDay + 1));
+
+        rollup = rollup.plus(nextDay, 5 * MINUTE, 1);
+        assertEquals(1, rollup.getMonthPhases(nextDay));
+        assertEquals(2, rollup.getStreakDays(nextDay));
+        // a gap starts a new streak
+        rollup = rollup.plus(nextDay + 2, 5 * MINUTE, 1);
+        assertEquals(1, rollup.getStreakDays(nextDay + 2));
+    }
+
+    @Test
+    public void lateSession_joinsStreakWithoutReplacingToday() {
+        long today = EpochDays.ofDate(2024, 5, 29);
+        StatsRollup rollup = StatsRollup.EMPTY
+                .plus(today, 5 * MINUTE, 1)
+                .plus(today - 1, 5 * MINUTE, 1);
+        assertEquals(1, rollup.getDayPhases(today));
+        assertEquals(2, rollup.getStreakDays(today));
+    }
+
+    @Test
+    public void encode_roundTrips() {
+        long today = EpochDays.ofDate(2024, 5, 29);
+        StatsRollup rollup = StatsRollup.EMPTY.plus(today, 5 * MINUTE, 1);
+        StatsRollup decoded = StatsRollup.decode(rollup.encode());
+        assertEquals(rollup.encode(), decoded.encode());
+        assertEquals(1, decoded.getStreakDays(today));
+        assertEquals(0, StatsRollup.decode(StatsRollup.EMPTY.encode()).getStreakDays(today));
+    }
+}
@@ -0,0 +1,61 @@
+package com.finalproject.focus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+    private static final long MINUTE = 60_000;
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    public void fullBucket_allowsBurstThenRefuses() {
+        TokenBucket bucket = new TokenBucket(3, MINUTE);
+        assertTrue(bucket.tryAcquire(NOW));
+        assertTrue(bucket.tryAcquire(NOW));
+        assertTrue(bucket.tryAcquire(NOW));
+        assertFalse(bucket.tryAcquire(NOW));
+        assertEquals(MINUTE, bucket.millisUntilAvailable(NOW));
+    }
+
+    @Test
+    public void tokens_refillOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, MINUTE);
+        bucket.tryAcquire(NOW);
+        bucket.tryAcquire(NOW);
+
+        assertFalse(bucket.tryAcquire(NOW + MINUTE / 2));
+        assertEquals(MINUTE / 2, bucket.millisUntilAvailable(NOW + MINUTE / 2));
+        assertTrue(bucket.tryAcquire(NOW + MINUTE));
+        assertFalse(bucket.tryAcquire(NOW + MINUTE));
+
+        // a long wait refills no more than capacity
+        long later = NOW + 60 * MINUTE;
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+    }
+
+    @Test
+    public void storedBucket_keepsItsTokens() {
+        TokenBucket bucket = new TokenBucket(5, MINUTE);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(NOW);
+        }
+        TokenBucket restored = new TokenBucket(5, MINUTE, bucket.getTokens(),
+                bucket.getUpdatedMillis());
+
+        assertFalse(restored.tryAcquire(NOW + 1_000));
+        assertTrue(restored.tryAcquire(NOW + MINUTE));
+    }
+
+    @Test
+    public void clockSetBack_addsNoTokens() {
+        TokenBucket bucket = new TokenBucket(1, MINUTE);
+        bucket.tryAcquire(NOW);
+
+        assertFalse(bucket.tryAcquire(NOW - 10 * MINUTE));
+        // counted from the earlier time now, so refilled a minute after it
+        assertTrue(bucket.tryAcquire(NOW - 9 * MINUTE));
+    }
+}